@@ -0,0 +1,135 @@
+package com.bannergress.backend.banner;
+
+import com.bannergress.backend.BannergressBackendApplication;
+import com.bannergress.backend.banner.search.SyntheticBannerDataset;
+import com.bannergress.backend.mission.Mission;
+import com.bannergress.backend.mission.Mission_;
+import com.bannergress.backend.mission.step.MissionStep;
+import com.bannergress.backend.mission.step.MissionStep_;
+import com.bannergress.backend.spatial.Spatial;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.JoinType;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading the details of large banners with a single join over missions, steps and POIs against loading the
+ * steps in batches of missions, as done by {@link BannerService#findBySlugWithDetails}.
+ * <p>
+ * Run with <code>./gradlew jmh -PjmhIncludes=BannerDetailsBenchmark</code>. Heap churn is reported by the gc
+ * profiler, the number of rows transferred by each strategy is printed on setup.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BannerDetailsBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(BannerDetailsBenchmark.class);
+
+    private static final int NUMBER_OF_BANNERS = 10;
+
+    private static final int STEPS_PER_MISSION = 6;
+
+    @Param({"60", "300"})
+    public int numberOfMissions;
+
+    private ConfigurableApplicationContext context;
+
+    private BannerService bannerService;
+
+    private BannerRepository bannerRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    private List<String> slugs;
+
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BannergressBackendApplication.class) //
+            .profiles("benchmark") //
+            .run();
+        bannerService = context.getBean(BannerService.class);
+        bannerRepository = context.getBean(BannerRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+        EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        slugs = new SyntheticBannerDataset(entityManagerFactory, context.getBean(Spatial.class))
+            .ensureLargeBanners(NUMBER_OF_BANNERS, numberOfMissions, STEPS_PER_MISSION);
+        logTransferredRows(entityManagerFactory, slugs.get(0));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int joined() {
+        String slug = nextSlug();
+        return transactionTemplate.execute(status -> countPois(bannerRepository
+            .findAll(BannerSpecifications.hasSlug(slug).and(fetchAllJoined())).stream().findAny().get()));
+    }
+
+    @Benchmark
+    public int staged() {
+        String slug = nextSlug();
+        return transactionTemplate.execute(status -> countPois(bannerService.findBySlugWithDetails(slug).get()));
+    }
+
+    /** The former single query, which joins banner, missions, authors, steps and POIs. */
+    private static Specification<Banner> fetchAllJoined() {
+        return (banner, cq, cb) -> {
+            Fetch<Banner, Mission> missions = banner.fetch(Banner_.missions, JoinType.LEFT);
+            missions.fetch(Mission_.author, JoinType.LEFT);
+            missions.fetch(Mission_.steps, JoinType.LEFT).fetch(MissionStep_.poi, JoinType.LEFT);
+            return null;
+        };
+    }
+
+    /** Touches all steps and POIs, so that lazy loading would show up in the measurement. */
+    private static int countPois(Banner banner) {
+        int count = 0;
+        for (Mission mission : banner.getMissions().values()) {
+            for (MissionStep step : mission.getSteps()) {
+                if (step.getPoi() != null && step.getPoi().getPoint() != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private String nextSlug() {
+        return slugs.get(invocation++ % slugs.size());
+    }
+
+    private static void logTransferredRows(EntityManagerFactory entityManagerFactory, String slug) {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            long missions = entityManager
+                .createQuery("select count(m) from Banner b join b.missions m where b.canonicalSlug = :slug",
+                    Long.class)
+                .setParameter("slug", slug).getSingleResult();
+            long steps = entityManager
+                .createQuery("select count(s) from Banner b join b.missions m join m.steps s"
+                    + " where b.canonicalSlug = :slug", Long.class)
+                .setParameter("slug", slug).getSingleResult();
+            logger.info("Rows per banner: joined {} (banner, mission, author, step and POI columns),"
+                + " staged {} (banner, mission and author columns) + {} (mission, author, step and POI columns)",
+                steps, missions, steps);
+        }
+    }
+}
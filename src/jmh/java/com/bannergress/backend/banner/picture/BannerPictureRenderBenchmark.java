@@ -0,0 +1,262 @@
+package com.bannergress.backend.banner.picture;
+
+import com.bannergress.backend.banner.Banner;
+import com.bannergress.backend.mission.Mission;
+import com.bannergress.backend.mission.MissionStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares compositing and encoding of banner pictures by {@link BannerPictureServiceImpl} against the former render
+ * path, which scaled every mission picture onto the banner through {@link Graphics2D} with bicubic interpolation and
+ * looked up a new {@link ImageWriter} for every picture.
+ * <p>
+ * Mission pictures are generated fixtures in the size of the originals, with semi-transparent edges, served from
+ * memory. The optimized path scales them once into cached tiles, so only compositing and encoding are measured for
+ * it. Both paths are checked to produce identical output on setup, as pictures of the same hash must not change. Run
+ * with
+ * <code>./gradlew jmh -PjmhIncludes=BannerPictureRenderBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BannerPictureRenderBenchmark {
+    private static final int NUMBER_OF_FIXTURES = 16;
+
+    /** Size of the generated mission pictures, as served by the image hosts. */
+    private static final int FIXTURE_SIZE = 256;
+
+    private static final float COMPRESSION_QUALITY = 0.92f;
+
+    @Param({"1", "2", "3", "4", "5", "6"})
+    public int width;
+
+    @Param({"6", "24", "96", "300"})
+    public int numberOfMissions;
+
+    private final Map<String, BufferedImage> fixtures = new HashMap<>();
+
+    private final Map<MissionStatus, BufferedImage> legacyMasks = new HashMap<>();
+
+    private Path tileDirectory;
+
+    private BannerPictureServiceImpl service;
+
+    private Banner banner;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < NUMBER_OF_FIXTURES; i++) {
+            fixtures.put(fixtureUrl(i), createFixture(random));
+        }
+        legacyMasks.put(MissionStatus.published, loadLegacyMask("mask-100-online.png"));
+        legacyMasks.put(MissionStatus.disabled, loadLegacyMask("mask-100-offline.png"));
+        legacyMasks.put(MissionStatus.submitted, loadLegacyMask("mask-100-placeholder.png"));
+
+        tileDirectory = Files.createTempDirectory("tiles");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MissionPictureFetcher fetcher = new MissionPictureFetcher(null,
+            new FetchConfiguration(Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1),
+                Duration.ofSeconds(10), 8, 0), meterRegistry) {
+            @Override
+            BufferedImage fetch(String url) {
+                return fixtures.get(url);
+            }
+        };
+        MissionTileCache tileCache = new MissionTileCache(fetcher, tileDirectory.toString(), 64_000_000,
+            meterRegistry);
+        // No raster cache, every invocation renders the full picture
+        service = new BannerPictureServiceImpl(tileCache, COMPRESSION_QUALITY, 0);
+        banner = createBanner();
+
+        byte[] legacy = legacy();
+        byte[] optimized = optimized();
+        if (!Arrays.equals(legacy, optimized)) {
+            throw new IllegalStateException("optimized render path differs from legacy render path by up to "
+                + maxDifference(decode(legacy), decode(optimized)) + " per color channel");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.walk(tileDirectory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public byte[] optimized() {
+        return service.createPicture(banner);
+    }
+
+    /** The former render path, kept for comparison. */
+    @Benchmark
+    public byte[] legacy() throws IOException {
+        int numberColumns = banner.getWidth();
+        boolean onlyDisabledOrSubmitted = banner.getNumberOfDisabledMissions()
+            + banner.getNumberOfSubmittedMissions() == banner.getNumberOfMissions();
+        SortedMap<Integer, Optional<Mission>> missionsAndPlaceholders = banner.getMissionsAndPlaceholders();
+        int numberRows = missionsAndPlaceholders.lastKey() / numberColumns + 1;
+        BufferedImage bannerImage = new BufferedImage(numberColumns * 100 + 4, numberRows * 100 + 4,
+            BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = bannerImage.createGraphics();
+        graphics.setPaint(new Color(46, 46, 46));
+        graphics.fillRect(0, 0, bannerImage.getWidth(), bannerImage.getHeight());
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        graphics.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER));
+        missionsAndPlaceholders.forEach((position, mission) -> {
+            int missionPosition = numberColumns * numberRows - position - 1;
+            int x1 = 2 + (missionPosition % numberColumns) * 100;
+            int y1 = 2 + (missionPosition / numberColumns) * 100;
+            int x2 = x1 + 100;
+            int y2 = y1 + 100;
+            synchronized (graphics) {
+                mission.map(m -> fixtures.get(m.getPicture().toString())).ifPresent(image -> graphics
+                    .drawImage(image, x1 + 2, y1 + 2, x2 - 2, y2 - 2, 0, 0, image.getWidth(), image.getHeight(), null));
+                MissionStatus status = mission.map(Mission::getStatus).orElse(MissionStatus.submitted);
+                if (status == MissionStatus.disabled && onlyDisabledOrSubmitted) {
+                    status = MissionStatus.published;
+                }
+                BufferedImage mask = legacyMasks.get(status);
+                graphics.drawImage(mask, x1, y1, x2, y2, 0, 0, mask.getWidth(), mask.getHeight(), null);
+            }
+        });
+        graphics.dispose();
+        try (ByteArrayOutputStream stream = new ByteArrayOutputStream(24 * 1024 * numberRows);
+            ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(stream)) {
+            ImageWriter imageWriter = ImageIO.getImageWritersByFormatName("jpg").next();
+            ImageWriteParam imageWriteParam = imageWriter.getDefaultWriteParam();
+            imageWriteParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            imageWriteParam.setCompressionQuality(COMPRESSION_QUALITY);
+            imageWriter.setOutput(imageOutputStream);
+            imageWriter.write(null, new IIOImage(bannerImage, null, null), imageWriteParam);
+            imageWriter.dispose();
+            return stream.toByteArray();
+        }
+    }
+
+    /**
+     * Creates a banner with mostly published missions, some disabled and submitted missions and some placeholders.
+     */
+    private Banner createBanner() {
+        Banner result = new Banner();
+        result.setWidth(width);
+        SortedMap<Integer, Mission> missions = new TreeMap<>();
+        TreeSet<Integer> placeholders = new TreeSet<>();
+        int disabled = 0;
+        int submitted = 0;
+        for (int position = 0; position < numberOfMissions; position++) {
+            if (position % 11 == 10) {
+                placeholders.add(position);
+                continue;
+            }
+            Mission mission = new Mission();
+            mission.setPicture(toUrl(fixtureUrl(position % NUMBER_OF_FIXTURES)));
+            if (position % 7 == 6) {
+                mission.setStatus(MissionStatus.disabled);
+                disabled++;
+            } else if (position % 13 == 12) {
+                mission.setStatus(MissionStatus.submitted);
+                submitted++;
+            } else {
+                mission.setStatus(MissionStatus.published);
+            }
+            missions.put(position, mission);
+        }
+        result.setMissions(missions);
+        result.setPlaceholders(placeholders);
+        result.setNumberOfMissions(missions.size());
+        result.setNumberOfDisabledMissions(disabled);
+        result.setNumberOfSubmittedMissions(submitted);
+        return result;
+    }
+
+    /** Calculates the maximum difference of the color channels of two pictures of the same size. */
+    private static int maxDifference(BufferedImage legacy, BufferedImage optimized) {
+        int maxDelta = 0;
+        for (int y = 0; y < legacy.getHeight(); y++) {
+            for (int x = 0; x < legacy.getWidth(); x++) {
+                int legacyRgb = legacy.getRGB(x, y);
+                int optimizedRgb = optimized.getRGB(x, y);
+                for (int shift = 0; shift < 24; shift += 8) {
+                    maxDelta = Math.max(maxDelta,
+                        Math.abs(((legacyRgb >> shift) & 0xff) - ((optimizedRgb >> shift) & 0xff)));
+                }
+            }
+        }
+        return maxDelta;
+    }
+
+    private static BufferedImage decode(byte[] picture) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(picture));
+    }
+
+    /** Creates a round mission picture whose edge fades out over a few pixels. */
+    private static BufferedImage createFixture(Random random) {
+        BufferedImage image = new BufferedImage(FIXTURE_SIZE, FIXTURE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        int base = random.nextInt(1 << 24);
+        double center = (FIXTURE_SIZE - 1) / 2d;
+        double radius = FIXTURE_SIZE * 0.48;
+        double edgeWidth = FIXTURE_SIZE * 0.03;
+        for (int y = 0; y < FIXTURE_SIZE; y++) {
+            for (int x = 0; x < FIXTURE_SIZE; x++) {
+                double distance = Math.hypot(x - center, y - center);
+                double opacity = Math.clamp((radius - distance) / edgeWidth, 0d, 1d);
+                int alpha = (int) Math.round(opacity * 255);
+                image.setRGB(x, y, (alpha << 24) | ((base + x * 515 + y * 263) & 0xffffff));
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage loadLegacyMask(String path) throws IOException {
+        try (InputStream stream = BannerPictureServiceImpl.class.getResourceAsStream(path)) {
+            return ImageIO.read(stream);
+        }
+    }
+
+    private static String fixtureUrl(int index) {
+        return "https://fixtures.invalid/mission-" + index;
+    }
+
+    private static URL toUrl(String url) {
+        try {
+            return URI.create(url).toURL();
+        } catch (IOException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.bannergress.backend.banner.search;
+
+import com.bannergress.backend.BannergressBackendApplication;
+import com.bannergress.backend.banner.Banner;
+import com.bannergress.backend.banner.BannerListType;
+import com.bannergress.backend.banner.search.SyntheticBannerDataset.City;
+import com.bannergress.backend.place.Place;
+import com.bannergress.backend.spatial.Spatial;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.search.mapper.orm.Search;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort.Direction;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the main query shapes of {@link BannerSearchService} against a synthetic data set.
+ * <p>
+ * Run with <code>./gradlew jmh</code>. Needs a PostgreSQL database, see <code>application-benchmark.yaml</code>.
+ * The data set is grown for each size, so the sizes have to run in ascending order against the same database.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BannerSearchBenchmark {
+    private static final int LIMIT = 24;
+
+    @Param({"10000", "100000", "500000"})
+    public int numberOfBanners;
+
+    private ConfigurableApplicationContext context;
+
+    private BannerSearchService searchService;
+
+    private List<City> cities;
+
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        context = new SpringApplicationBuilder(BannergressBackendApplication.class) //
+            .profiles("benchmark") //
+            .run();
+        searchService = context.getBean(BannerSearchService.class);
+        EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        SyntheticBannerDataset dataset = new SyntheticBannerDataset(entityManagerFactory,
+            context.getBean(Spatial.class));
+        cities = dataset.getCities();
+        boolean generated = dataset.ensureSize(numberOfBanners);
+        if (generated || countIndexedBanners(entityManagerFactory) != countBanners(entityManagerFactory)) {
+            Search.mapping(entityManagerFactory) //
+                .scope(List.of(Banner.class, Place.class)) //
+                .massIndexer() //
+                .startAndWait();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Banner> placeBrowse() {
+        return searchService.find(Optional.of(nextCity().slug()), Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.empty(), false, Optional.empty(), false, Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.of(true), Optional.of(BannerSortOrder.created),
+            Direction.DESC, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            0, LIMIT);
+    }
+
+    /** Same query as {@link #placeBrowse()}, but with results built from index projections. */
+    @Benchmark
+    public List<Banner> placeBrowseSummaries() {
+        return searchService.findSummaries(Optional.of(nextCity().slug()), Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.empty(), false, Optional.empty(), false, Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.of(true), Optional.of(BannerSortOrder.created),
+            Direction.DESC, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            0, LIMIT);
+    }
+
+    @Benchmark
+    public List<Banner> boundingBox() {
+        City city = nextCity();
+        return searchService.find(Optional.empty(), Optional.of(city.latitude() - 0.1),
+            Optional.of(city.latitude() + 0.1), Optional.of(city.longitude() - 0.15),
+            Optional.of(city.longitude() + 0.15), Optional.empty(), false, Optional.empty(), false, Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.of(BannerSortOrder.created),
+            Direction.DESC, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            0, LIMIT);
+    }
+
+    @Benchmark
+    public List<Banner> freeText() {
+        return searchService.find(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.of("harbour lights"), true, Optional.empty(), false, Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.of(BannerSortOrder.relevance),
+            Direction.DESC, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            0, LIMIT);
+    }
+
+    @Benchmark
+    public List<Banner> author() {
+        String author = SyntheticBannerDataset.authorName(invocation++ % SyntheticBannerDataset.NUMBER_OF_AUTHORS);
+        return searchService.find(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.empty(), false, Optional.empty(), false, Optional.of(author),
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.of(BannerSortOrder.created),
+            Direction.DESC, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            0, LIMIT);
+    }
+
+    @Benchmark
+    public List<Banner> listTypes() {
+        String userId = SyntheticBannerDataset.userId(invocation++ % SyntheticBannerDataset.NUMBER_OF_USERS);
+        return searchService.find(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.empty(), false, Optional.empty(), false, Optional.empty(),
+            Optional.of(List.of(BannerListType.todo)), Optional.of(userId), Optional.empty(),
+            Optional.of(BannerSortOrder.listAdded), Direction.DESC, Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.empty(), 0, LIMIT);
+    }
+
+    @Benchmark
+    public List<Banner> proximitySort() {
+        City city = nextCity();
+        return searchService.find(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.empty(), false, Optional.empty(), false, Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.of(true), Optional.of(BannerSortOrder.proximityStartPoint), Direction.ASC,
+            Optional.of(city.latitude()), Optional.of(city.longitude()), Optional.empty(), Optional.empty(),
+            Optional.empty(), 0, LIMIT);
+    }
+
+    @Benchmark
+    public List<Banner> eventRange() {
+        Instant start = Instant.parse("2021-01-01T00:00:00Z").plusSeconds((invocation++ % 60) * 30L * 86_400);
+        return searchService.find(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.empty(), false, Optional.empty(), false, Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.of(BannerSortOrder.created), Direction.DESC,
+            Optional.empty(), Optional.empty(), Optional.of(start), Optional.of(start.plusSeconds(30L * 86_400)),
+            Optional.empty(), 0, LIMIT);
+    }
+
+    /** Rotates through the cities, so that consecutive invocations do not query the same place. */
+    private City nextCity() {
+        return cities.get(invocation++ % cities.size());
+    }
+
+    private static long countBanners(EntityManagerFactory entityManagerFactory) {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            return entityManager.createQuery("select count(b) from Banner b", Long.class).getSingleResult();
+        }
+    }
+
+    private static long countIndexedBanners(EntityManagerFactory entityManagerFactory) {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            return Search.session(entityManager).search(Banner.class) //
+                .where(f -> f.matchAll()) //
+                .fetchTotalHitCount();
+        }
+    }
+}
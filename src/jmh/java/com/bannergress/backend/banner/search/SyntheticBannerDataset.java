@@ -0,0 +1,348 @@
+package com.bannergress.backend.banner.search;
+
+import com.bannergress.backend.agent.NamedAgent;
+import com.bannergress.backend.banner.Banner;
+import com.bannergress.backend.banner.BannerListType;
+import com.bannergress.backend.banner.settings.BannerSettings;
+import com.bannergress.backend.mission.Mission;
+import com.bannergress.backend.mission.step.MissionStep;
+import com.bannergress.backend.mission.step.MissionStepBuilder;
+import com.bannergress.backend.mission.step.Objective;
+import com.bannergress.backend.place.Place;
+import com.bannergress.backend.place.PlaceType;
+import com.bannergress.backend.poi.POI;
+import com.bannergress.backend.spatial.Spatial;
+import com.bannergress.backend.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static com.bannergress.backend.testutils.builder.BuilderMethods.a;
+import static com.bannergress.backend.testutils.builder.EntityBuilder.*;
+
+/**
+ * Generates a reproducible synthetic data set of banners with missions, start places, authors and user settings.
+ * <p>
+ * Banners are spread around a fixed set of cities, so that place and bounding box queries hit realistic numbers of
+ * banners. Banner <code>n</code> always gets the same content, which allows growing an existing data set from a
+ * smaller to a larger size instead of generating it from scratch.
+ */
+public class SyntheticBannerDataset {
+    static final int NUMBER_OF_COUNTRIES = 20;
+
+    static final int CITIES_PER_COUNTRY = 25;
+
+    static final int NUMBER_OF_AUTHORS = 2_000;
+
+    static final int NUMBER_OF_USERS = 100;
+
+    private static final int BATCH_SIZE = 500;
+
+    /** Slug prefix of large banners, which are not counted as part of the regular data set. */
+    private static final String LARGE_BANNER_PREFIX = "large-";
+
+    /** Distribution of mission counts, weighted towards the common banner sizes. */
+    private static final int[] NUMBER_OF_MISSIONS = {6, 6, 6, 6, 12, 12, 12, 18, 18, 24, 30, 36, 48, 72, 96};
+
+    private static final String[] WORDS = {"Old", "Town", "River", "Park", "Harbour", "Castle", "Bridge", "Street",
+        "Art", "Garden", "Market", "Station", "Tour", "Walk", "Lights", "Mural", "Cathedral", "Festival", "Night", "Hill"};
+
+    private static final Instant CREATED_START = Instant.parse("2021-01-01T00:00:00Z");
+
+    private static final Instant CREATED_END = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Spatial spatial;
+
+    private final List<City> cities;
+
+    public SyntheticBannerDataset(EntityManagerFactory entityManagerFactory, Spatial spatial) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.spatial = spatial;
+        this.cities = createCities();
+    }
+
+    /**
+     * City around which banners are generated.
+     *
+     * @param slug        Place slug of the city.
+     * @param countrySlug Place slug of the country the city is in.
+     * @param latitude    Latitude of the center.
+     * @param longitude   Longitude of the center.
+     */
+    record City(String slug, String countrySlug, double latitude, double longitude) {
+    }
+
+    List<City> getCities() {
+        return cities;
+    }
+
+    static String authorName(int author) {
+        return "Agent" + author;
+    }
+
+    static String userId(int user) {
+        return "user-" + user;
+    }
+
+    /**
+     * Grows the data set to the given number of banners.
+     *
+     * @param numberOfBanners Requested number of banners.
+     * @return <code>true</code> if data was generated.
+     */
+    boolean ensureSize(int numberOfBanners) {
+        int existing = inTransaction(entityManager -> entityManager
+            .createQuery("select count(b) from Banner b where b.canonicalSlug not like :prefix", Long.class)
+            .setParameter("prefix", LARGE_BANNER_PREFIX + "%").getSingleResult().intValue());
+        if (existing > numberOfBanners) {
+            throw new IllegalStateException("Database already contains " + existing
+                + " banners, use an empty database or run smaller sizes first");
+        }
+        if (existing == numberOfBanners) {
+            return false;
+        }
+        ensureReferenceData();
+        for (int start = existing; start < numberOfBanners; start += BATCH_SIZE) {
+            int end = Math.min(start + BATCH_SIZE, numberOfBanners);
+            int batchStart = start;
+            inTransaction(entityManager -> {
+                for (int n = batchStart; n < end; n++) {
+                    persistBanner(entityManager, n);
+                }
+                return null;
+            });
+        }
+        inTransaction(entityManager -> entityManager.createQuery(
+            "update Place p set p.numberOfBanners = (select count(b) from Banner b where p member of b.startPlaces)")
+            .executeUpdate());
+        return true;
+    }
+
+    /**
+     * Creates large banners with many missions and steps, unless they exist already.
+     *
+     * @param count            Number of large banners.
+     * @param numberOfMissions Number of missions per banner.
+     * @param stepsPerMission  Number of steps per mission.
+     * @return Canonical slugs of the large banners.
+     */
+    public List<String> ensureLargeBanners(int count, int numberOfMissions, int stepsPerMission) {
+        ensureReferenceData();
+        List<String> slugs = new ArrayList<>();
+        for (int n = 0; n < count; n++) {
+            String slug = LARGE_BANNER_PREFIX + numberOfMissions + "x" + stepsPerMission + "-" + n;
+            int bannerNumber = n;
+            inTransaction(entityManager -> {
+                if (entityManager.createQuery("select count(b) from Banner b where b.canonicalSlug = :slug", Long.class)
+                    .setParameter("slug", slug).getSingleResult() == 0) {
+                    persistLargeBanner(entityManager, slug, bannerNumber, numberOfMissions, stepsPerMission);
+                }
+                return null;
+            });
+            slugs.add(slug);
+        }
+        return slugs;
+    }
+
+    private void persistLargeBanner(EntityManager entityManager, String slug, int n, int numberOfMissions,
+                                    int stepsPerMission) {
+        City city = cities.get(n % cities.size());
+        NamedAgent author = entityManager.getReference(NamedAgent.class, authorName(n % NUMBER_OF_AUTHORS));
+        SortedMap<Integer, Mission> missions = new TreeMap<>();
+        for (int position = 0; position < numberOfMissions; position++) {
+            Mission mission = a($Mission() //
+                .withId(slug + "-" + position) //
+                .withTitle(slug + " " + (position + 1) + "/" + numberOfMissions) //
+                .withAuthor(author) //
+                .withSteps(new ArrayList<>()));
+            for (int step = 0; step < stepsPerMission; step++) {
+                POI poi = a($POI() //
+                    .withId(slug + "-" + position + "-" + step) //
+                    .withPoint(spatial.createPoint(city.latitude() + position * 0.0005, city.longitude() + step
+                        * 0.0002)));
+                entityManager.persist(poi);
+                mission.getSteps().add(new MissionStepBuilder() //
+                    .withMission(mission) //
+                    .withPoi(poi) //
+                    .withObjective(Objective.hack) //
+                    .build());
+            }
+            entityManager.persist(mission);
+            missions.put(position, mission);
+        }
+        Banner banner = a($Banner() //
+            .withUuid(null) //
+            .withTitle(slug) //
+            .withNumberOfMissions(numberOfMissions) //
+            .withMissions(missions) //
+            .withStartPoint(spatial.createPoint(city.latitude(), city.longitude())) //
+            .withStartPlaces(Set.of(entityManager.getReference(Place.class, city.countrySlug()),
+                entityManager.getReference(Place.class, city.slug()))) //
+            .withCreated(CREATED_END));
+        banner.setCanonicalSlug(slug);
+        banner.getSlugs().add(slug);
+        entityManager.persist(banner);
+    }
+
+    private void ensureReferenceData() {
+        inTransaction(entityManager -> {
+            if (entityManager.createQuery("select count(p) from Place p", Long.class).getSingleResult() == 0) {
+                persistReferenceData(entityManager);
+            }
+            return null;
+        });
+    }
+
+    private void persistReferenceData(EntityManager entityManager) {
+        Random random = new Random(0);
+        for (int country = 0; country < NUMBER_OF_COUNTRIES; country++) {
+            entityManager.persist(createPlace(countrySlug(country), PlaceType.country, "Country " + country,
+                "Country " + country));
+        }
+        for (City city : cities) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + city.slug();
+            entityManager.persist(createPlace(city.slug(), PlaceType.locality, name, name + ", "
+                + city.countrySlug()));
+        }
+        for (int author = 0; author < NUMBER_OF_AUTHORS; author++) {
+            entityManager.persist(a($NamedAgent().withName(authorName(author))));
+        }
+        for (int user = 0; user < NUMBER_OF_USERS; user++) {
+            User entity = new User();
+            entity.setId(userId(user));
+            entityManager.persist(entity);
+        }
+    }
+
+    private Place createPlace(String slug, PlaceType type, String longName, String formattedAddress) {
+        Place place = a($Place().withId(slug).withType(type).withInformation(new ArrayList<>()));
+        place.setSlug(slug);
+        place.getInformation().add(a($PlaceInformation() //
+            .withUuid(null) //
+            .withPlace(place) //
+            .withLanguageCode("en") //
+            .withLongName(longName) //
+            .withShortName(longName) //
+            .withFormattedAddress(formattedAddress)));
+        return place;
+    }
+
+    private void persistBanner(EntityManager entityManager, int n) {
+        Random random = new Random(n);
+        City city = cities.get(random.nextInt(cities.size()));
+        int numberOfMissions = NUMBER_OF_MISSIONS[random.nextInt(NUMBER_OF_MISSIONS.length)];
+        NamedAgent author = entityManager.getReference(NamedAgent.class,
+            authorName((int) Math.abs(random.nextGaussian() * NUMBER_OF_AUTHORS / 4) % NUMBER_OF_AUTHORS));
+        String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + n;
+        double latitude = city.latitude() + random.nextGaussian() * 0.03;
+        double longitude = city.longitude() + random.nextGaussian() * 0.05;
+
+        SortedMap<Integer, Mission> missions = new TreeMap<>();
+        for (int position = 0; position < numberOfMissions; position++) {
+            POI poi = a($POI() //
+                .withId("poi-" + n + "-" + position) //
+                .withTitle(title + " start " + (position + 1)) //
+                .withPoint(spatial.createPoint(latitude + position * 0.0005, longitude)));
+            entityManager.persist(poi);
+            Mission mission = a($Mission() //
+                .withId("mission-" + n + "-" + position) //
+                .withTitle(title + " " + (position + 1) + "/" + numberOfMissions) //
+                .withAuthor(author) //
+                .withSteps(new ArrayList<>()));
+            MissionStep step = new MissionStepBuilder() //
+                .withMission(mission) //
+                .withPoi(poi) //
+                .withObjective(Objective.hack) //
+                .build();
+            mission.getSteps().add(step);
+            entityManager.persist(mission);
+            missions.put(position, mission);
+        }
+
+        Instant created = CREATED_START.plusSeconds(
+            (long) (random.nextDouble() * Duration.between(CREATED_START, CREATED_END).getSeconds()));
+        Banner banner = a($Banner() //
+            .withUuid(null) //
+            .withTitle(title) //
+            .withNumberOfMissions(numberOfMissions) //
+            .withMissions(missions) //
+            .withLengthMeters(numberOfMissions * (200 + random.nextInt(800))) //
+            .withOnline(random.nextInt(10) != 0) //
+            .withStartPoint(spatial.createPoint(latitude, longitude)) //
+            .withStartPlaces(Set.of(entityManager.getReference(Place.class, city.countrySlug()),
+                entityManager.getReference(Place.class, city.slug()))) //
+            .withCreated(created));
+        banner.setCanonicalSlug(title.toLowerCase(Locale.ROOT).replace(' ', '-'));
+        banner.getSlugs().add(banner.getCanonicalSlug());
+        if (random.nextInt(20) == 0) {
+            // About 5% event banners, spread over the creation period
+            Instant eventStart = created.plus(Duration.ofDays(random.nextInt(60)));
+            Instant eventEnd = eventStart.plus(Duration.ofDays(1 + random.nextInt(14)));
+            banner.setEventStartDate(eventStart.atOffset(ZoneOffset.UTC).toLocalDate());
+            banner.setEventEndDate(eventEnd.atOffset(ZoneOffset.UTC).toLocalDate());
+            banner.setEventStartTimestamp(eventStart);
+            banner.setEventEndTimestamp(eventEnd);
+        }
+        entityManager.persist(banner);
+
+        // Each user has about 1% of all banners on one of their lists
+        for (int user = 0; user < NUMBER_OF_USERS; user++) {
+            if (random.nextInt(100) == 0) {
+                BannerSettings settings = new BannerSettings();
+                settings.setBanner(banner);
+                settings.setUser(entityManager.getReference(User.class, userId(user)));
+                settings.setListType(BannerListType.values()[1 + random.nextInt(BannerListType.values().length - 1)]);
+                settings.setListAdded(created.plus(Duration.ofDays(1 + random.nextInt(365))));
+                entityManager.persist(settings);
+            }
+        }
+    }
+
+    private static List<City> createCities() {
+        Random random = new Random(0);
+        List<City> result = new ArrayList<>();
+        for (int country = 0; country < NUMBER_OF_COUNTRIES; country++) {
+            double countryLatitude = -50 + random.nextDouble() * 110;
+            double countryLongitude = -170 + random.nextDouble() * 340;
+            for (int city = 0; city < CITIES_PER_COUNTRY; city++) {
+                result.add(new City("city-" + country + "-" + city, countrySlug(country),
+                    countryLatitude + random.nextGaussian() * 2, countryLongitude + random.nextGaussian() * 3));
+            }
+        }
+        return result;
+    }
+
+    private static String countrySlug(int country) {
+        return "country-" + country;
+    }
+
+    private <T> T inTransaction(Function<EntityManager, T> work) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        EntityTransaction transaction = entityManager.getTransaction();
+        try {
+            transaction.begin();
+            T result = work.apply(entityManager);
+            transaction.commit();
+            return result;
+        } finally {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            entityManager.close();
+        }
+    }
+}
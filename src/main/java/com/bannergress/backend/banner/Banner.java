@@ -1,6 +1,12 @@
 package com.bannergress.backend.banner;
 
 import com.bannergress.backend.banner.picture.BannerPicture;
+import com.bannergress.backend.banner.search.AutocompleteAnalysisConfigurer;
+import com.bannergress.backend.banner.search.IndexedAtBinder;
+import com.bannergress.backend.banner.search.ListedByBinder;
+import com.bannergress.backend.banner.search.OfficialBannerBinder;
+import com.bannergress.backend.banner.search.StartGeohashBinder;
+import com.bannergress.backend.banner.search.StartPlaceBinder;
 import com.bannergress.backend.banner.settings.BannerSettings;
 import com.bannergress.backend.mission.Mission;
 import com.bannergress.backend.place.Place;
@@ -15,14 +21,19 @@ import org.hibernate.annotations.NaturalId;
 import org.hibernate.annotations.SortNatural;
 import org.hibernate.envers.Audited;
 import org.hibernate.envers.NotAudited;
-import org.hibernate.search.engine.backend.types.ObjectStructure;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.engine.backend.types.Projectable;
 import org.hibernate.search.engine.backend.types.Searchable;
 import org.hibernate.search.engine.backend.types.Sortable;
+import org.hibernate.search.mapper.pojo.bridge.mapping.annotation.PropertyBinderRef;
+import org.hibernate.search.mapper.pojo.bridge.mapping.annotation.TypeBinderRef;
 import org.hibernate.search.mapper.pojo.bridge.mapping.annotation.ValueBridgeRef;
 import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
 import org.hibernate.search.mapper.pojo.mapping.definition.annotation.GenericField;
 import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
 import org.hibernate.search.mapper.pojo.mapping.definition.annotation.IndexedEmbedded;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.PropertyBinding;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.TypeBinding;
 import org.hibernate.type.SqlTypes;
 import org.locationtech.jts.geom.Point;
 
@@ -38,6 +49,7 @@ import java.util.*;
 @Audited
 @GeneratePojoBuilder(withBuilderInterface = PojoBuilder.class)
 @Indexed
+@TypeBinding(binder = @TypeBinderRef(type = IndexedAtBinder.class))
 public class Banner {
     /**
      * Internal ID without further meaning.
@@ -45,7 +57,7 @@ public class Banner {
     @Id
     @Column(name = "uuid", columnDefinition = "uuid")
     @GeneratedValue
-    @GenericField(searchable = Searchable.NO, sortable = Sortable.YES)
+    @GenericField(searchable = Searchable.YES, sortable = Sortable.YES, projectable = Projectable.YES)
     private UUID uuid;
 
     /**
@@ -54,6 +66,7 @@ public class Banner {
     @NaturalId(mutable = true)
     @Column(name = "canonical_slug", nullable = false)
     @NotAudited
+    @GenericField(searchable = Searchable.NO, projectable = Projectable.YES)
     private String canonicalSlug;
 
     /**
@@ -70,7 +83,8 @@ public class Banner {
      */
     @Column(name = "title", nullable = false)
     @FullTextField
-    @GenericField(name = "titleSort", searchable = Searchable.NO, sortable = Sortable.YES)
+    @FullTextField(name = "titleAutocomplete", analyzer = AutocompleteAnalysisConfigurer.ANALYZER_INDEXING, searchAnalyzer = AutocompleteAnalysisConfigurer.ANALYZER_SEARCH)
+    @GenericField(name = "titleSort", searchable = Searchable.YES, sortable = Sortable.YES, projectable = Projectable.YES)
     private String title;
 
     /**
@@ -82,6 +96,7 @@ public class Banner {
 
     /** Width of the banner in missions. */
     @Column(name = "width", nullable = false)
+    @GenericField(searchable = Searchable.NO, projectable = Projectable.YES)
     private int width;
 
     /**
@@ -89,7 +104,7 @@ public class Banner {
      */
     @Column(name = "number_of_missions", nullable = false)
     @NotAudited
-    @GenericField(searchable = Searchable.NO, sortable = Sortable.YES)
+    @GenericField(searchable = Searchable.YES, sortable = Sortable.YES, projectable = Projectable.YES, aggregable = Aggregable.YES)
     private int numberOfMissions;
 
     /**
@@ -97,6 +112,7 @@ public class Banner {
      */
     @Column(name = "number_of_submitted_missions", nullable = false)
     @NotAudited
+    @GenericField(searchable = Searchable.NO, projectable = Projectable.YES)
     private int numberOfSubmittedMissions;
 
     /**
@@ -104,6 +120,7 @@ public class Banner {
      */
     @Column(name = "number_of_disabled_missions", nullable = false)
     @NotAudited
+    @GenericField(searchable = Searchable.NO, projectable = Projectable.YES)
     private int numberOfDisabledMissions;
 
     /**
@@ -117,6 +134,7 @@ public class Banner {
     @MapKeyColumn(name = "position")
     @SortNatural
     @IndexedEmbedded
+    @PropertyBinding(binder = @PropertyBinderRef(type = OfficialBannerBinder.class))
     private SortedMap<Integer, Mission> missions = new TreeMap<>();
 
     /**
@@ -134,7 +152,8 @@ public class Banner {
     @Basic
     @Column(name = "start_point", nullable = true)
     @NotAudited
-    @GenericField(searchable = Searchable.YES, sortable = Sortable.YES, valueBridge = @ValueBridgeRef(type = PointBridge.class))
+    @GenericField(searchable = Searchable.YES, sortable = Sortable.YES, projectable = Projectable.YES, valueBridge = @ValueBridgeRef(type = PointBridge.class))
+    @PropertyBinding(binder = @PropertyBinderRef(type = StartGeohashBinder.class))
     private Point startPoint;
 
     /**
@@ -142,7 +161,7 @@ public class Banner {
      */
     @Column(name = "length_meters", nullable = true)
     @NotAudited
-    @GenericField(searchable = Searchable.NO, sortable = Sortable.YES)
+    @GenericField(searchable = Searchable.YES, sortable = Sortable.YES, projectable = Projectable.YES, aggregable = Aggregable.YES)
     private Integer lengthMeters;
 
     /**
@@ -150,7 +169,7 @@ public class Banner {
      */
     @Column(name = "online", nullable = false)
     @NotAudited
-    @GenericField(searchable = Searchable.YES, sortable = Sortable.NO)
+    @GenericField(searchable = Searchable.YES, sortable = Sortable.NO, aggregable = Aggregable.YES)
     private boolean online;
 
     /**
@@ -159,6 +178,7 @@ public class Banner {
     @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
     @JoinColumn(name = "picture")
     @NotAudited
+    @IndexedEmbedded(includePaths = "hash")
     private BannerPicture picture;
 
     /**
@@ -169,7 +189,8 @@ public class Banner {
     @JoinTable(name = "banner_start_place", joinColumns = {@JoinColumn(name = "banner")}, inverseJoinColumns = {
         @JoinColumn(name = "place")})
     @NotAudited
-    @IndexedEmbedded
+    @IndexedEmbedded(includePaths = {"slug", "information.longName", "information.formattedAddress"})
+    @PropertyBinding(binder = @PropertyBinderRef(type = StartPlaceBinder.class))
     private Set<Place> startPlaces = new HashSet<>();
 
     /**
@@ -177,7 +198,7 @@ public class Banner {
      */
     @Column(name = "created", nullable = false)
     @NotAudited
-    @GenericField(searchable = Searchable.NO, sortable = Sortable.YES)
+    @GenericField(searchable = Searchable.YES, sortable = Sortable.YES, projectable = Projectable.YES)
     private Instant created;
 
     /**
@@ -193,7 +214,7 @@ public class Banner {
      */
     @OneToMany(mappedBy = "banner", cascade = CascadeType.ALL)
     @NotAudited
-    @IndexedEmbedded(structure = ObjectStructure.NESTED)
+    @PropertyBinding(binder = @PropertyBinderRef(type = ListedByBinder.class))
     private List<BannerSettings> settings;
 
     /**
@@ -225,7 +246,7 @@ public class Banner {
      */
     @Column(name = "event_start_timestamp", nullable = true)
     @NotAudited
-    @GenericField(searchable = Searchable.YES, sortable = Sortable.NO)
+    @GenericField(searchable = Searchable.YES, sortable = Sortable.NO, aggregable = Aggregable.YES)
     private Instant eventStartTimestamp;
 
     /**
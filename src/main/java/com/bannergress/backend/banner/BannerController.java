@@ -1,8 +1,12 @@
 package com.bannergress.backend.banner;
 
+import com.bannergress.backend.banner.picture.BannerPictureSize;
+import com.bannergress.backend.banner.search.BannerCluster;
+import com.bannergress.backend.banner.search.BannerFacets;
+import com.bannergress.backend.banner.search.BannerSearchCursor;
 import com.bannergress.backend.banner.search.BannerSearchService;
 import com.bannergress.backend.banner.search.BannerSortOrder;
-import com.bannergress.backend.banner.settings.BannerSettings;
+import com.bannergress.backend.banner.search.ReindexStatus;
 import com.bannergress.backend.banner.settings.BannerSettingsDto;
 import com.bannergress.backend.banner.settings.BannerSettingsService;
 import com.bannergress.backend.mission.Mission;
@@ -10,13 +14,13 @@ import com.bannergress.backend.mission.MissionController;
 import com.bannergress.backend.mission.MissionDto;
 import com.bannergress.backend.mission.step.MissionStep;
 import com.bannergress.backend.mission.validation.NianticId;
+import com.bannergress.backend.place.PlaceDto;
 import com.bannergress.backend.place.PlaceInformation;
 import com.bannergress.backend.place.PlaceService;
 import com.bannergress.backend.poi.POI;
 import com.bannergress.backend.poi.POIType;
 import com.bannergress.backend.security.Roles;
 import com.google.common.base.Suppliers;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import io.swagger.v3.oas.annotations.Hidden;
@@ -26,6 +30,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Sort.Direction;
@@ -45,7 +50,6 @@ import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
-import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -60,6 +64,9 @@ import static com.bannergress.backend.spatial.Spatial.getLongitude;
 @RestController("bannerController")
 @Validated
 public class BannerController {
+    /** Response header which contains the cursor for the next page of list queries. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private static final String AGENT_TOKEN_ATTRIBUTE = "agent";
 
     private static final Logger logger = LoggerFactory.getLogger(BannerController.class);
@@ -81,6 +88,16 @@ public class BannerController {
         BannerDtoAttribute.listType //
     );
 
+    /** Attributes which can be created out of the search index, without loading banners from the database. */
+    private static final Set<BannerDtoAttribute> SUMMARY_ATTRIBUTES = ImmutableSet.<BannerDtoAttribute>builder() //
+        .addAll(DEFAULT_LIST_ATTRIBUTES) //
+        .add(BannerDtoAttribute.uuid) //
+        .build();
+
+    /** Set of attributes to return for suggestions. */
+    private static final Set<BannerDtoAttribute> SUGGESTION_ATTRIBUTES = ImmutableSet.of(BannerDtoAttribute.id,
+        BannerDtoAttribute.title);
+
     /** Set of attributes to return for preview queries. */
     private static final Set<BannerDtoAttribute> DEFAULT_PREVIEW_ATTRIBUTES = ImmutableSet.<BannerDtoAttribute>builder() //
         .addAll(DEFAULT_LIST_ATTRIBUTES) //
@@ -99,6 +116,10 @@ public class BannerController {
         .add(BannerDtoAttribute.owner) //
         .build();
 
+    /** Attributes which need the information of the start places. */
+    private static final Set<BannerDtoAttribute> PLACE_INFORMATION_ATTRIBUTES = ImmutableSet.of(
+        BannerDtoAttribute.formattedAddress, BannerDtoAttribute.startPlaceId);
+
     private final BannerService bannerService;
 
     private final BannerSearchService bannerSearchService;
@@ -129,6 +150,7 @@ public class BannerController {
      * @param author               Optional author of one of the banner missions.
      * @param orderBy              Sort order.
      * @param orderDirection       Sort direction.
+     * @param cursor               Cursor returned by a previous list query.
      * @param offset               Offset of the first result.
      * @param limit                Maximum number of results.
      * @return Banners.
@@ -152,6 +174,7 @@ public class BannerController {
                                                 @RequestParam @Parameter(description = "Only list events which end after this ISO 8601 UTC timestamp.") Optional<Instant> minEventTimestamp,
                                                 @RequestParam @Parameter(description = "Only list events which start before this ISO 8601 UTC timestamp.") Optional<Instant> maxEventTimestamp,
                                                 @RequestParam @Parameter(description = "Include these attributes in the output.") Optional<Set<BannerDtoAttribute>> attributes,
+                                                @RequestParam @Parameter(description = "Cursor from the " + NEXT_CURSOR_HEADER + " header of the previous page. Only results after the cursor are returned.") final Optional<String> cursor,
                                                 @RequestParam(defaultValue = "0") @Parameter(description = "0-based offset for searching.") @Min(0) final int offset,
                                                 @RequestParam(defaultValue = "20") @Parameter(description = "Maximum number of results.") @Min(1) @Max(100) final int limit,
                                                 Principal principal, List<Locale.LanguageRange> languagePriorityList) {
@@ -174,14 +197,157 @@ public class BannerController {
             // Sort by proximity to start point needs reference coordinates
             return ResponseEntity.badRequest().build();
         }
-        final Collection<Banner> banners = bannerSearchService.find(placeId, minLatitude, maxLatitude, minLongitude,
-            maxLongitude, query, isAuthenticated, missionId, onlyOfficialMissions, author, listTypes,
-            Optional.ofNullable(principal).map(Principal::getName), online, orderBy, orderDirection, proximityLatitude,
-            proximityLongitude, minEventTimestamp, maxEventTimestamp, offset, limit);
+        final Optional<BannerSearchCursor> after;
+        try {
+            after = cursor.map(BannerSearchCursor::decode);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (after.isPresent() && !after.get().matches(orderBy, orderDirection)) {
+            // Cursor was created for a different sort order
+            return ResponseEntity.badRequest().build();
+        }
+        final Set<BannerDtoAttribute> requestedAttributes = attributes.orElse(DEFAULT_LIST_ATTRIBUTES);
+        final List<Banner> banners;
+        if (SUMMARY_ATTRIBUTES.containsAll(requestedAttributes)) {
+            banners = bannerSearchService.findSummaries(placeId, minLatitude, maxLatitude, minLongitude,
+                maxLongitude, query, isAuthenticated, missionId, onlyOfficialMissions, author, listTypes,
+                Optional.ofNullable(principal).map(Principal::getName), online, orderBy, orderDirection,
+                proximityLatitude, proximityLongitude, minEventTimestamp, maxEventTimestamp, after, offset, limit);
+        } else {
+            banners = bannerSearchService.find(placeId, minLatitude, maxLatitude, minLongitude, maxLongitude, query,
+                isAuthenticated, missionId, onlyOfficialMissions, author, listTypes,
+                Optional.ofNullable(principal).map(Principal::getName), online, orderBy, orderDirection,
+                proximityLatitude, proximityLongitude, minEventTimestamp, maxEventTimestamp, after, offset, limit);
+        }
+        BannerDtoBatchLoader batchLoader = createBatchLoader(principal).register(banners);
         List<BannerDto> bannerDtos = banners.stream()
-            .map(banner -> toDto(banner, languagePriorityList, attributes.orElse(DEFAULT_LIST_ATTRIBUTES), principal, getListTypeFunction(principal, banners)))
+            .map(banner -> toDto(banner, languagePriorityList, requestedAttributes, principal, batchLoader))
             .collect(Collectors.toUnmodifiableList());
-        return ResponseEntity.ok(bannerDtos);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (banners.size() == limit) {
+            BannerSearchCursor.after(orderBy, orderDirection, banners.get(banners.size() - 1))
+                .ifPresent(nextCursor -> response.header(NEXT_CURSOR_HEADER, nextCursor.encode()));
+        }
+        return response.body(bannerDtos);
+    }
+
+    /**
+     * Counts banners per facet (start place, online status, number of missions, length and event start).
+     *
+     * @param placeId              Place ID the banner belongs to.
+     * @param minLatitude          Minimum latitude of the bounding box.
+     * @param maxLatitude          Maximum latitude of the bounding box.
+     * @param minLongitude         Minimum longitude of the bounding box.
+     * @param maxLongitude         Maximum longitude of the bounding box.
+     * @param query                Optional query string.
+     * @param missionId            Optional ID of mission which has to be contained in banner.
+     * @param onlyOfficialMissions Whether to only include official mission accounts.
+     * @param author               Optional author of one of the banner missions.
+     * @param maxStartPlaces       Maximum number of start places to count banners for.
+     * @return Facet counts.
+     */
+    @GetMapping(value = "/bnrs/facets")
+    public ResponseEntity<BannerFacets> facets(@RequestParam @Parameter(description = "Place ID the banner belongs to.") final Optional<String> placeId,
+                                               @RequestParam @Parameter(description = "Minimum latitude of the banner start point bounding box. Only valid in combination with all other bounding box parameters.") final Optional<@Min(-90) @Max(90) Double> minLatitude,
+                                               @RequestParam @Parameter(description = "Maximum latitude of the banner start point bounding box. Only valid in combination with all other bounding box parameters.") final Optional<@Min(-90) @Max(90) Double> maxLatitude,
+                                               @RequestParam @Parameter(description = "Minimum longitude of the banner start point bounding box. Only valid in combination with all other bounding box parameters.") final Optional<@Min(-180) @Max(180) Double> minLongitude,
+                                               @RequestParam @Parameter(description = "Minimum longitude of the banner start point bounding box. Only valid in combination with all other bounding box parameters.") final Optional<@Min(-180) @Max(180) Double> maxLongitude,
+                                               @RequestParam @Parameter(description = "Query string. The exact search algorithm may change over time.") final Optional<String> query,
+                                               @RequestParam @Parameter(description = "ID of a mission that is part of the banner.") final Optional<@NianticId String> missionId,
+                                               @RequestParam(defaultValue = "false") @Parameter(description = "Only banners with missions created by Niantic.") final boolean onlyOfficialMissions,
+                                               @RequestParam @Parameter(description = "Agent who created one of the missions of the banner.") final Optional<String> author,
+                                               @RequestParam @Parameter(description = "List(s) the banner is on (requires authentication).") final Optional<Collection<BannerListType>> listTypes,
+                                               @RequestParam @Parameter(description = "Only count online/offline banners.") final Optional<Boolean> online,
+                                               @RequestParam @Parameter(description = "Only count events which end after this ISO 8601 UTC timestamp.") Optional<Instant> minEventTimestamp,
+                                               @RequestParam @Parameter(description = "Only count events which start before this ISO 8601 UTC timestamp.") Optional<Instant> maxEventTimestamp,
+                                               @RequestParam(defaultValue = "20") @Parameter(description = "Maximum number of start places to count.") @Min(1) @Max(100) final int maxStartPlaces,
+                                               Principal principal) {
+        boolean isAuthenticated = principal != null;
+        if ((author.isPresent() || listTypes.isPresent()) && !isAuthenticated) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        int numberOfBounds = (minLatitude.isPresent() ? 1 : 0) + (maxLatitude.isPresent() ? 1 : 0)
+            + (minLongitude.isPresent() ? 1 : 0) + (maxLongitude.isPresent() ? 1 : 0);
+        if (numberOfBounds != 0 && numberOfBounds != 4) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(bannerSearchService.findFacets(placeId, minLatitude, maxLatitude, minLongitude,
+            maxLongitude, query, isAuthenticated, missionId, onlyOfficialMissions, author, listTypes,
+            Optional.ofNullable(principal).map(Principal::getName), online, minEventTimestamp, maxEventTimestamp,
+            maxStartPlaces));
+    }
+
+    /**
+     * Groups banners into clusters by the geohash cell of their start point.
+     *
+     * @param placeId              Place ID the banner belongs to.
+     * @param minLatitude          Minimum latitude of the bounding box.
+     * @param maxLatitude          Maximum latitude of the bounding box.
+     * @param minLongitude         Minimum longitude of the bounding box.
+     * @param maxLongitude         Maximum longitude of the bounding box.
+     * @param query                Optional query string.
+     * @param missionId            Optional ID of mission which has to be contained in banner.
+     * @param onlyOfficialMissions Whether to only include official mission accounts.
+     * @param author               Optional author of one of the banner missions.
+     * @param precision            Geohash precision of the clusters.
+     * @return Clusters.
+     */
+    @GetMapping(value = "/bnrs/clusters")
+    public ResponseEntity<List<BannerCluster>> clusters(@RequestParam @Parameter(description = "Place ID the banner belongs to.") final Optional<String> placeId,
+                                                        @RequestParam @Parameter(description = "Minimum latitude of the banner start point bounding box. Only valid in combination with all other bounding box parameters.") final Optional<@Min(-90) @Max(90) Double> minLatitude,
+                                                        @RequestParam @Parameter(description = "Maximum latitude of the banner start point bounding box. Only valid in combination with all other bounding box parameters.") final Optional<@Min(-90) @Max(90) Double> maxLatitude,
+                                                        @RequestParam @Parameter(description = "Minimum longitude of the banner start point bounding box. Only valid in combination with all other bounding box parameters.") final Optional<@Min(-180) @Max(180) Double> minLongitude,
+                                                        @RequestParam @Parameter(description = "Minimum longitude of the banner start point bounding box. Only valid in combination with all other bounding box parameters.") final Optional<@Min(-180) @Max(180) Double> maxLongitude,
+                                                        @RequestParam @Parameter(description = "Query string. The exact search algorithm may change over time.") final Optional<String> query,
+                                                        @RequestParam @Parameter(description = "ID of a mission that is part of the banner.") final Optional<@NianticId String> missionId,
+                                                        @RequestParam(defaultValue = "false") @Parameter(description = "Only banners with missions created by Niantic.") final boolean onlyOfficialMissions,
+                                                        @RequestParam @Parameter(description = "Agent who created one of the missions of the banner.") final Optional<String> author,
+                                                        @RequestParam @Parameter(description = "List(s) the banner is on (requires authentication).") final Optional<Collection<BannerListType>> listTypes,
+                                                        @RequestParam @Parameter(description = "Only cluster online/offline banners.") final Optional<Boolean> online,
+                                                        @RequestParam @Parameter(description = "Only cluster events which end after this ISO 8601 UTC timestamp.") Optional<Instant> minEventTimestamp,
+                                                        @RequestParam @Parameter(description = "Only cluster events which start before this ISO 8601 UTC timestamp.") Optional<Instant> maxEventTimestamp,
+                                                        @RequestParam(defaultValue = "3") @Parameter(description = "Geohash precision (number of characters) of the clusters.") @Min(1) @Max(8) final int precision,
+                                                        Principal principal) {
+        boolean isAuthenticated = principal != null;
+        if ((author.isPresent() || listTypes.isPresent()) && !isAuthenticated) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        int numberOfBounds = (minLatitude.isPresent() ? 1 : 0) + (maxLatitude.isPresent() ? 1 : 0)
+            + (minLongitude.isPresent() ? 1 : 0) + (maxLongitude.isPresent() ? 1 : 0);
+        if (numberOfBounds != 0 && numberOfBounds != 4) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(bannerSearchService.findClusters(placeId, minLatitude, maxLatitude, minLongitude,
+            maxLongitude, query, isAuthenticated, missionId, onlyOfficialMissions, author, listTypes,
+            Optional.ofNullable(principal).map(Principal::getName), online, minEventTimestamp, maxEventTimestamp,
+            precision));
+    }
+
+    /**
+     * Suggests banners and places for search-as-you-type.
+     *
+     * @param query Query as typed so far.
+     * @param limit Maximum number of banners and places each.
+     * @return Suggestions.
+     */
+    @GetMapping(value = "/bnrs/suggestions")
+    public SuggestionsDto suggestions(@RequestParam @Parameter(description = "Query as typed so far. Each word is matched as prefix.") @NotBlank final String query,
+                                      @RequestParam(defaultValue = "5") @Parameter(description = "Maximum number of banners and places each.") @Min(1) @Max(20) final int limit,
+                                      List<Locale.LanguageRange> languagePriorityList) {
+        SuggestionsDto result = new SuggestionsDto();
+        result.banners = bannerSearchService.suggestBanners(query, limit).stream()
+            .map(banner -> toDto(banner, languagePriorityList, SUGGESTION_ATTRIBUTES, null, createBatchLoader(null)))
+            .toList();
+        result.places = bannerSearchService.suggestPlaces(query, limit).stream().map(place -> {
+            PlaceInformation information = placeService.getPlaceInformation(place, languagePriorityList);
+            PlaceDto placeDto = new PlaceDto();
+            placeDto.id = place.getSlug();
+            placeDto.longName = information.getLongName();
+            placeDto.formattedAddress = information.getFormattedAddress();
+            return placeDto;
+        }).toList();
+        return result;
     }
 
     /**
@@ -195,10 +361,12 @@ public class BannerController {
                                          @RequestParam Optional<Set<BannerDtoAttribute>> attributes,
                                          Principal principal,
                                          List<Locale.LanguageRange> languagePriorityList) {
-        final Optional<Banner> banner = bannerService.findBySlugWithDetails(id);
+        final Set<BannerDtoAttribute> requestedAttributes = attributes.orElse(DEFAULT_GET_ATTRIBUTES);
+        final Optional<Banner> banner = bannerService.findBySlug(id,
+            requestedAttributes.contains(BannerDtoAttribute.missions),
+            !Collections.disjoint(requestedAttributes, PLACE_INFORMATION_ATTRIBUTES));
         Optional<BannerDto> optionalBannerDto = banner
-            .map(b -> toDto(b, languagePriorityList, attributes.orElse(DEFAULT_GET_ATTRIBUTES), principal,
-                getListTypeFunction(principal, ImmutableList.of(b))));
+            .map(b -> toDto(b, languagePriorityList, requestedAttributes, principal, createBatchLoader(principal)));
         return ResponseEntity.of(optionalBannerDto);
     }
 
@@ -237,7 +405,7 @@ public class BannerController {
     public BannerDto preview(@Valid @RequestBody BannerDto banner, List<Locale.LanguageRange> languagePriorityList)
         throws MissionAlreadyUsedException {
         return toDto(bannerService.generatePreview(banner), languagePriorityList, DEFAULT_PREVIEW_ATTRIBUTES, null,
-            x -> Optional.empty());
+            createBatchLoader(null));
     }
 
     /**
@@ -309,11 +477,35 @@ public class BannerController {
         pool.shutdown();
     }
 
+    /**
+     * Starts reindexing banners in the background.
+     *
+     * @param placeId      Optional place ID; if present, only banners starting in the place are reindexed.
+     * @param changedSince Optional timestamp; if present, only banners changed since then are reindexed.
+     * @return Status of the started reindexing, or status of the running reindexing with status 409.
+     */
     @RolesAllowed(Roles.MANAGE_BANNERS)
     @PostMapping("/bnrs/reindex")
     @Hidden
-    public void reindexAllBanners() {
-        bannerSearchService.updateIndex();
+    public ResponseEntity<ReindexStatus> reindexBanners(@RequestParam final Optional<String> placeId,
+                                                        @RequestParam final Optional<Instant> changedSince) {
+        if (bannerSearchService.startReindex(placeId, changedSince)) {
+            return ResponseEntity.accepted().body(bannerSearchService.getReindexStatus());
+        } else {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(bannerSearchService.getReindexStatus());
+        }
+    }
+
+    /**
+     * Gets the progress of the current or most recent reindexing.
+     *
+     * @return Reindex status.
+     */
+    @RolesAllowed(Roles.MANAGE_BANNERS)
+    @GetMapping("/bnrs/reindex")
+    @Hidden
+    public ReindexStatus getReindexStatus() {
+        return bannerSearchService.getReindexStatus();
     }
 
     @PreAuthorize("isAuthenticated()")
@@ -326,7 +518,7 @@ public class BannerController {
 
     private BannerDto toDto(Banner banner, List<Locale.LanguageRange> languagePriorityList,
                             Collection<BannerDtoAttribute> attributes, Principal principal,
-                            Function<String, Optional<BannerListType>> listTypeFunction) {
+                            BannerDtoBatchLoader batchLoader) {
         Supplier<Optional<PlaceInformation>> placeInformationSupplier = Suppliers
             .memoize(() -> placeService.getMostAccuratePlaceInformation(banner.getStartPlaces(), languagePriorityList));
         BannerDto dto = new BannerDto();
@@ -352,7 +544,7 @@ public class BannerController {
                     dto.lengthMeters = banner.getLengthMeters();
                     break;
                 case listType:
-                    BannerListType listType = listTypeFunction.apply(banner.getCanonicalSlug()).orElse(BannerListType.none);
+                    BannerListType listType = batchLoader.getListType(banner.getCanonicalSlug()).orElse(BannerListType.none);
                     dto.listType = listType == BannerListType.none ? null : listType;
                     break;
                 case missions:
@@ -368,11 +560,13 @@ public class BannerController {
                     dto.numberOfSubmittedMissions = banner.getNumberOfSubmittedMissions();
                     break;
                 case owner:
-                    dto.owner = hasOwner(dto.id, principal);
+                    dto.owner = batchLoader.isOwner(banner.getCanonicalSlug());
                     break;
                 case picture:
                     dto.picture = banner.getPicture() == null ? null
                         : ("/bnrs/pictures/" + banner.getPicture().getHash());
+                    dto.pictureVariants = banner.getPicture() == null ? null
+                        : getPictureVariants(banner.getPicture().getHash());
                     break;
                 case plannedOfflineDate:
                     dto.plannedOfflineDate = banner.getPlannedOfflineDate();
@@ -412,17 +606,17 @@ public class BannerController {
         return input.map(MissionController::toDetails).orElse(new MissionDto());
     }
 
-    private Function<String, Optional<BannerListType>> getListTypeFunction(Principal principal,
-                                                                           Collection<Banner> banners) {
-        if (principal == null) {
-            return canonicalSlug -> Optional.empty();
-        } else {
-            Supplier<List<BannerSettings>> bannerSettingsSupplier = () -> bannerSettingsService.getBannerSettings(
-                principal.getName(), banners.stream().map(Banner::getCanonicalSlug).collect(Collectors.toList()));
-            return canonicalSlug -> bannerSettingsSupplier.get().stream()
-                .filter(settings -> settings.getBanner().getCanonicalSlug().equals(canonicalSlug)).findFirst()
-                .map(BannerSettings::getListType);
+    private static Map<BannerPictureSize, String> getPictureVariants(String hash) {
+        Map<BannerPictureSize, String> variants = new EnumMap<>(BannerPictureSize.class);
+        for (BannerPictureSize size : BannerPictureSize.values()) {
+            variants.put(size, "/bnrs/pictures/" + hash + "?size=" + size);
         }
+        return variants;
+    }
+
+    private BannerDtoBatchLoader createBatchLoader(Principal principal) {
+        return new BannerDtoBatchLoader(bannerService, bannerSettingsService,
+            Optional.ofNullable(principal).map(Principal::getName), getAgent(principal));
     }
 
     private Gpx toGpx(Banner banner) {
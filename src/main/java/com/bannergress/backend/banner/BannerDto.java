@@ -1,5 +1,6 @@
 package com.bannergress.backend.banner;
 
+import com.bannergress.backend.banner.picture.BannerPictureSize;
 import com.bannergress.backend.utils.PojoBuilder;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
@@ -105,6 +106,11 @@ public class BannerDto {
      */
     public String picture;
 
+    /**
+     * Paths to the banner's picture by size, for example for thumbnails.
+     */
+    public Map<BannerPictureSize, String> pictureVariants;
+
     /**
      * Banner type (sequential or any order).
      */
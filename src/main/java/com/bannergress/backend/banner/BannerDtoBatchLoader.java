@@ -0,0 +1,101 @@
+package com.bannergress.backend.banner;
+
+import com.bannergress.backend.banner.settings.BannerSettings;
+import com.bannergress.backend.banner.settings.BannerSettingsService;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Loads per-banner data for DTO mapping in batches, similar to a data loader. Banners are registered up front; the
+ * first lookup loads the data for all registered banners in a single query, later lookups are answered from a map.
+ * <p>
+ * An instance belongs to a single request and principal and must not be shared.
+ */
+class BannerDtoBatchLoader {
+    private final Set<String> registeredSlugs = new LinkedHashSet<>();
+
+    private final Batch<BannerListType> listTypes;
+
+    private final Batch<Boolean> owners;
+
+    /**
+     * Creates a loader.
+     *
+     * @param bannerService         Service for loading ownership.
+     * @param bannerSettingsService Service for loading list types.
+     * @param userId                ID of the user, or empty if the request is anonymous.
+     * @param agent                 Agent name of the user, or empty if unknown.
+     */
+    BannerDtoBatchLoader(BannerService bannerService, BannerSettingsService bannerSettingsService,
+                         Optional<String> userId, Optional<String> agent) {
+        this.listTypes = new Batch<>(slugs -> userId
+            .map(id -> bannerSettingsService.getBannerSettings(id, slugs).stream()
+                .collect(Collectors.toMap(settings -> settings.getBanner().getCanonicalSlug(),
+                    BannerSettings::getListType)))
+            .orElse(Map.of()));
+        this.owners = new Batch<>(slugs -> agent
+            .map(name -> bannerService.getAuthoredBanners(slugs, name).stream()
+                .collect(Collectors.toMap(slug -> slug, slug -> true)))
+            .orElse(Map.of()));
+    }
+
+    /**
+     * Registers banners whose data is loaded with the next batch.
+     *
+     * @param banners Banners.
+     * @return this loader.
+     */
+    BannerDtoBatchLoader register(Collection<Banner> banners) {
+        banners.forEach(banner -> registeredSlugs.add(banner.getCanonicalSlug()));
+        return this;
+    }
+
+    /**
+     * Gets the type of the list the banner is on for the user of the request.
+     *
+     * @param canonicalSlug Canonical slug of the banner.
+     * @return List type, or empty if the banner is not on a list or the request is anonymous.
+     */
+    Optional<BannerListType> getListType(String canonicalSlug) {
+        return listTypes.get(canonicalSlug);
+    }
+
+    /**
+     * Checks whether the agent of the request is an author of at least one mission of the banner.
+     *
+     * @param canonicalSlug Canonical slug of the banner.
+     * @return <code>true</code>, if the agent is an author of the banner.
+     */
+    boolean isOwner(String canonicalSlug) {
+        return owners.get(canonicalSlug).orElse(false);
+    }
+
+    /** Values of one kind, loaded for all registered banners that were not loaded yet. */
+    private class Batch<V> {
+        private final Function<Set<String>, Map<String, V>> loader;
+
+        private final Map<String, Optional<V>> values = new HashMap<>();
+
+        private Batch(Function<Set<String>, Map<String, V>> loader) {
+            this.loader = loader;
+        }
+
+        private Optional<V> get(String canonicalSlug) {
+            if (!values.containsKey(canonicalSlug)) {
+                registeredSlugs.add(canonicalSlug);
+                Set<String> slugs = registeredSlugs.stream().filter(slug -> !values.containsKey(slug))
+                    .collect(Collectors.toSet());
+                Map<String, V> loaded = loader.apply(slugs);
+                slugs.forEach(slug -> values.put(slug, Optional.ofNullable(loaded.get(slug))));
+            }
+            return values.get(canonicalSlug);
+        }
+    }
+}
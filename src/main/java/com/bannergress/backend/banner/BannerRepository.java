@@ -4,8 +4,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -19,4 +21,8 @@ public interface BannerRepository extends JpaRepository<Banner, UUID>, JpaSpecif
     List<String> getAllSlugs();
 
     Optional<Banner> findByCanonicalSlug(String slug);
+
+    @Query("SELECT DISTINCT b.canonicalSlug FROM Banner b JOIN b.missions m"
+        + " WHERE b.canonicalSlug IN :canonicalSlugs AND m.author.name = :author")
+    Set<String> findCanonicalSlugsWithAuthor(Collection<String> canonicalSlugs, String author);
 }
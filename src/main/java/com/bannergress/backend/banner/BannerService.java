@@ -1,7 +1,9 @@
 package com.bannergress.backend.banner;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -21,6 +23,16 @@ public interface BannerService {
      */
     Optional<Banner> findBySlugWithDetails(String slug);
 
+    /**
+     * Finds a banner by its slug, fetching only the requested associations.
+     *
+     * @param slug                 Slug.
+     * @param withMissions         Whether to fetch the missions down to steps and POIs.
+     * @param withPlaceInformation Whether to fetch the start places with their information.
+     * @return Banner.
+     */
+    Optional<Banner> findBySlug(String slug, boolean withMissions, boolean withPlaceInformation);
+
     /**
      * Creates a new banner. Banner missions must not be used by any other banner.
      *
@@ -82,6 +94,15 @@ public interface BannerService {
      */
     boolean hasAuthor(String slug, String userId);
 
+    /**
+     * Checks for a collection of banners which of them are authored by a user, in a single query.
+     *
+     * @param canonicalSlugs Canonical banner slugs.
+     * @param userId         User ID.
+     * @return Canonical slugs of the banners the user is an author of.
+     */
+    Set<String> getAuthoredBanners(Collection<String> canonicalSlugs, String userId);
+
     /**
      * Checks whether an edit is probably malicious.
      *
@@ -11,10 +11,13 @@ import com.bannergress.backend.utils.SlugGenerator;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.locationtech.jts.geom.Point;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -51,22 +54,51 @@ public class BannerServiceImpl implements BannerService {
     @Autowired
     private SlugGenerator slugGenerator;
 
+    /** Number of missions whose steps are loaded in one query. */
+    @Value("${banner.mission-details-batch-size:100}")
+    private int missionDetailsBatchSize;
+
     @Override
     public List<String> findAllSlugs() {
         return bannerRepository.getAllSlugs();
     }
 
+    /**
+     * Loads the steps and POIs of missions in batches. Loading them per batch instead of joining them with the banner
+     * keeps the number and width of transferred rows low for banners with many missions.
+     */
     private void preloadMissions(Collection<Mission> missions) {
-        if (!missions.isEmpty()) {
+        for (List<Mission> batch : Iterables.partition(missions, missionDetailsBatchSize)) {
             missionRepository
-                .findAll(MissionSpecifications.isInMissions(missions).and(MissionSpecifications.fetchDetails()));
+                .findAll(MissionSpecifications.isInMissions(batch).and(MissionSpecifications.fetchDetails()));
         }
     }
 
     @Override
     public Optional<Banner> findBySlugWithDetails(String slug) {
-        return bannerRepository.findAll(BannerSpecifications.hasSlug(slug).and(BannerSpecifications.fetchDetails()))
-            .stream().findAny();
+        Optional<Banner> banner = bannerRepository
+            .findAll(BannerSpecifications.hasSlug(slug).and(BannerSpecifications.fetchDetails())).stream().findAny();
+        banner.ifPresent(b -> preloadMissions(b.getMissions().values()));
+        return banner;
+    }
+
+    @Override
+    public Optional<Banner> findBySlug(String slug, boolean withMissions, boolean withPlaceInformation) {
+        Specification<Banner> specification = BannerSpecifications.hasSlug(slug);
+        if (withMissions) {
+            specification = specification.and(BannerSpecifications.fetchDetails());
+        } else if (withPlaceInformation) {
+            specification = specification.and(BannerSpecifications.fetchPlaceInformation());
+        }
+        Optional<Banner> banner = bannerRepository.findAll(specification).stream().findAny();
+        if (banner.isPresent() && withMissions) {
+            preloadMissions(banner.get().getMissions().values());
+        }
+        if (banner.isPresent() && withMissions && withPlaceInformation) {
+            // Separate query, as missions and place information can't be fetched in the same query
+            bannerRepository.findAll(BannerSpecifications.hasSlug(slug).and(BannerSpecifications.fetchPlaceInformation()));
+        }
+        return banner;
     }
 
     @Override
@@ -242,6 +274,12 @@ public class BannerServiceImpl implements BannerService {
             .and(BannerSpecifications.hasMissionWith(MissionSpecifications.hasAuthors(List.of(author))))) > 0;
     }
 
+    @Override
+    public Set<String> getAuthoredBanners(Collection<String> canonicalSlugs, String author) {
+        return canonicalSlugs.isEmpty() ? Set.of()
+            : bannerRepository.findCanonicalSlugsWithAuthor(canonicalSlugs, author);
+    }
+
     @Override
     public boolean isProbablyMaliciousEdit(String slug, BannerDto bannerDto, String userId) {
         Banner banner = bannerRepository.findOne(BannerSpecifications.hasSlug(slug)).get();
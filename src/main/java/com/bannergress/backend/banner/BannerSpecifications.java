@@ -4,7 +4,6 @@ import com.bannergress.backend.banner.settings.BannerSettings;
 import com.bannergress.backend.banner.settings.BannerSettings_;
 import com.bannergress.backend.mission.Mission;
 import com.bannergress.backend.mission.Mission_;
-import com.bannergress.backend.mission.step.MissionStep_;
 import com.bannergress.backend.place.Place;
 import com.bannergress.backend.place.Place_;
 import com.bannergress.backend.user.User_;
@@ -25,11 +24,14 @@ import java.util.EnumSet;
  * Specifications for banner searches.
  */
 public class BannerSpecifications {
+    /**
+     * Fetches the missions of a banner with their authors. Steps are not fetched, as joining them multiplies the
+     * number of rows; they are loaded separately in batches of missions.
+     */
     public static Specification<Banner> fetchDetails() {
         return (banner, cq, cb) -> {
             Fetch<Banner, Mission> missions = banner.fetch(Banner_.missions, JoinType.LEFT);
             missions.fetch(Mission_.author, JoinType.LEFT);
-            missions.fetch(Mission_.steps, JoinType.LEFT).fetch(MissionStep_.poi, JoinType.LEFT);
             return null;
         };
     }
@@ -0,0 +1,20 @@
+package com.bannergress.backend.banner;
+
+import com.bannergress.backend.place.PlaceDto;
+
+import java.util.List;
+
+/**
+ * Search-as-you-type suggestions.
+ */
+public class SuggestionsDto {
+    /**
+     * Suggested banners (ID and title only).
+     */
+    public List<BannerDto> banners;
+
+    /**
+     * Suggested places (ID and names only).
+     */
+    public List<PlaceDto> places;
+}
@@ -4,9 +4,14 @@ import com.bannergress.backend.banner.Banner;
 import com.bannergress.backend.utils.PojoBuilder;
 import jakarta.persistence.*;
 import net.karneim.pojobuilder.GeneratePojoBuilder;
+import org.hibernate.search.engine.backend.types.Projectable;
+import org.hibernate.search.engine.backend.types.Searchable;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.GenericField;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Represents a banner picture.
@@ -21,11 +26,42 @@ public class BannerPicture {
     @Id
     @Column(name = "hash")
     @Access(AccessType.PROPERTY)
+    @GenericField(searchable = Searchable.NO, projectable = Projectable.YES)
     private String hash;
 
-    @Column(name = "picture", nullable = false)
+    /**
+     * Whether the picture was rendered in all sizes. Pictures which are not rendered yet are rendered in the
+     * background.
+     */
+    @Column(name = "rendered", nullable = false)
+    private boolean rendered;
+
+    /**
+     * Whether the picture was rendered before variants existed and only has the full size. The variants are added in
+     * the background when no other pictures are waiting to be rendered.
+     */
+    @Column(name = "variants_pending", nullable = false)
+    private boolean variantsPending;
+
+    /**
+     * Picture content, if stored in the database. <code>null</code> while the picture is being rendered or if it is
+     * stored elsewhere.
+     *
+     * @see BannerPictureStorage
+     */
+    @Column(name = "picture", nullable = true)
     private byte[] picture;
 
+    /**
+     * Scaled down variants of the picture, if stored in the database.
+     */
+    @ElementCollection
+    @CollectionTable(name = "banner_picture_variant", joinColumns = {@JoinColumn(name = "hash")})
+    @MapKeyColumn(name = "size")
+    @MapKeyEnumerated(EnumType.STRING)
+    @Column(name = "picture")
+    private Map<BannerPictureSize, byte[]> variants = new HashMap<>();
+
     @Column(name = "expiration", nullable = true)
     private Instant expiration;
 
@@ -48,6 +84,22 @@ public class BannerPicture {
         this.hash = hash;
     }
 
+    public boolean isRendered() {
+        return rendered;
+    }
+
+    public void setRendered(boolean rendered) {
+        this.rendered = rendered;
+    }
+
+    public boolean isVariantsPending() {
+        return variantsPending;
+    }
+
+    public void setVariantsPending(boolean variantsPending) {
+        this.variantsPending = variantsPending;
+    }
+
     public byte[] getPicture() {
         return picture;
     }
@@ -56,6 +108,14 @@ public class BannerPicture {
         this.picture = picture;
     }
 
+    public Map<BannerPictureSize, byte[]> getVariants() {
+        return variants;
+    }
+
+    public void setVariants(Map<BannerPictureSize, byte[]> variants) {
+        this.variants = variants;
+    }
+
     public List<Banner> getBanners() {
         return banners;
     }
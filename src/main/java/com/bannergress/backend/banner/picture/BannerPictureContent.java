@@ -0,0 +1,13 @@
+package com.bannergress.backend.banner.picture;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Content of a banner picture in one size.
+ *
+ * @param resource Content.
+ * @param complete Whether the picture was completely rendered. Incomplete pictures show placeholders for mission
+ *                 pictures which could not be loaded, and are replaced when they are rendered again.
+ */
+public record BannerPictureContent(Resource resource, boolean complete) {
+}
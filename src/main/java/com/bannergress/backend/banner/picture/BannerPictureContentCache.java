@@ -0,0 +1,83 @@
+package com.bannergress.backend.banner.picture;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+
+/**
+ * Bounded in-memory LRU cache of the content of frequently requested pictures, in front of the
+ * {@link BannerPictureStorage}. Only content of completely rendered pictures is cached, as it never changes.
+ */
+@Component
+class BannerPictureContentCache {
+    /** Content larger than this is streamed from the storage and not cached. */
+    private static final long MAX_CACHED_SIZE = 1_048_576;
+
+    private final Cache<String, byte[]> contents;
+
+    BannerPictureContentCache(@Value("${picture.content-cache.memory-size:33554432}") long memorySize,
+                              MeterRegistry meterRegistry) {
+        this.contents = CacheBuilder.newBuilder() //
+            .maximumWeight(memorySize) //
+            .<String, byte[]>weigher((key, content) -> content.length) //
+            .recordStats() //
+            .build();
+        GuavaCacheMetrics.monitor(meterRegistry, contents, "banner.picture.contents");
+    }
+
+    /**
+     * Gets the content of a picture from the cache.
+     *
+     * @param hash Hash of the picture.
+     * @param size Size of the picture.
+     * @return Content, or empty if the content is not cached.
+     */
+    Optional<Resource> getIfPresent(String hash, BannerPictureSize size) {
+        return Optional.ofNullable(contents.getIfPresent(getKey(hash, size))).map(ByteArrayResource::new);
+    }
+
+    /**
+     * Caches the content of a picture read from the storage, unless it is too large.
+     *
+     * @param hash    Hash of the picture.
+     * @param size    Size of the picture.
+     * @param content Content read from the storage.
+     * @return Content to return instead of the one read from the storage, which may have been consumed.
+     */
+    Resource put(String hash, BannerPictureSize size, Resource content) {
+        try {
+            if (content.contentLength() > MAX_CACHED_SIZE) {
+                return content;
+            }
+            byte[] bytes = content.getContentAsByteArray();
+            contents.put(getKey(hash, size), bytes);
+            return new ByteArrayResource(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Removes the content of a picture in all sizes.
+     *
+     * @param hash Hash of the picture.
+     */
+    void invalidate(String hash) {
+        for (BannerPictureSize size : BannerPictureSize.values()) {
+            contents.invalidate(getKey(hash, size));
+        }
+    }
+
+    private static String getKey(String hash, BannerPictureSize size) {
+        return hash + "-" + size;
+    }
+}
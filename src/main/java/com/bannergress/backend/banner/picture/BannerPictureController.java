@@ -1,6 +1,9 @@
 package com.bannergress.backend.banner.picture;
 
+import com.google.common.io.ByteStreams;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -8,23 +11,92 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Optional;
 
 @Controller
 public class BannerPictureController {
+    /** Shown while a picture is rendered in the background. */
+    private static final byte[] PLACEHOLDER = loadPlaceholder();
+
+    /** Cache control for pictures which are rendered again soon, matching the retry interval of pending pictures. */
+    private static final String INCOMPLETE_CACHE_CONTROL = "public, max-age=300";
+
     @Autowired
     private BannerPictureService bannerPictureService;
 
+    /**
+     * Gets a banner picture. The content is returned as a resource, so that it is streamed from the storage and range
+     * requests are supported.
+     * <p>
+     * The content of a completely rendered picture never changes for a hash and size, so the hash is used as a strong
+     * ETag, and conditional requests are answered before the picture is looked up. Pictures with placeholders for
+     * mission pictures which could not be loaded are cached briefly and without ETag, as they are rendered again.
+     * Pictures which are not rendered yet are rendered on the first request, if pictures are rendered lazily. Unknown
+     * hashes are answered with 404 before anything is rendered.
+     *
+     * @param hash       Hash of the picture.
+     * @param size       Size of the picture.
+     * @param webRequest Request, for conditional requests.
+     * @return Picture content, or <code>null</code> if not modified.
+     */
     @GetMapping(value = "/bnrs/pictures/{hash}", produces = MediaType.IMAGE_JPEG_VALUE)
-    public ResponseEntity<byte[]> getFile(@PathVariable String hash) {
-        Optional<BannerPicture> bannerPicture = bannerPictureService.findByHash(hash);
-        if (bannerPicture.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+    public ResponseEntity<Resource> getFile(@PathVariable String hash,
+                                            @RequestParam(defaultValue = "full") BannerPictureSize size,
+                                            WebRequest webRequest) {
+        String etag = hash + "-" + size;
+        boolean conditional = webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+            || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+        // A last modification at the epoch matches any If-Modified-Since date, as the content never changes
+        if (conditional && webRequest.checkNotModified(etag, 0)) {
+            return null;
+        }
+        Optional<BannerPictureContent> content = bannerPictureService.findContent(hash, size);
+        if (content.isEmpty()) {
+            RenderOnReadResult result = bannerPictureService.renderOnRead(hash);
+            if (result == RenderOnReadResult.notFound) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+            }
+            if (result == RenderOnReadResult.rendered) {
+                content = bannerPictureService.findContent(hash, size);
+            }
+        }
+        if (content.isPresent() && content.get().complete()) {
+            return ResponseEntity.ok().contentType(MediaType.IMAGE_JPEG).eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable")
+                .body(content.get().resource());
+        }
+        if (content.isPresent()) {
+            // Some mission pictures are placeholders, so the content changes once the picture is rendered again
+            return ResponseEntity.ok().contentType(MediaType.IMAGE_JPEG)
+                .header(HttpHeaders.CACHE_CONTROL, INCOMPLETE_CACHE_CONTROL).body(content.get().resource());
+        }
+        if (size != BannerPictureSize.full) {
+            Optional<BannerPictureContent> fullContent = bannerPictureService.findContent(hash,
+                BannerPictureSize.full);
+            if (fullContent.isPresent()) {
+                // Picture was rendered before variants existed and is not re-rendered yet, serve the full size for now
+                return ResponseEntity.ok().contentType(MediaType.IMAGE_JPEG)
+                    .header(HttpHeaders.CACHE_CONTROL,
+                        fullContent.get().complete() ? "public, max-age=3600" : INCOMPLETE_CACHE_CONTROL)
+                    .body(fullContent.get().resource());
+            }
+        }
+        return ResponseEntity.ok().contentType(MediaType.IMAGE_JPEG).header(HttpHeaders.CACHE_CONTROL, "no-store")
+            .body(new ByteArrayResource(PLACEHOLDER));
+    }
+
+    private static byte[] loadPlaceholder() {
+        try (InputStream stream = BannerPictureController.class.getResourceAsStream("placeholder.jpg")) {
+            return ByteStreams.toByteArray(stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return ResponseEntity.ok().contentType(MediaType.IMAGE_JPEG)
-            .header(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable")
-            .body(bannerPicture.get().getPicture());
     }
 }
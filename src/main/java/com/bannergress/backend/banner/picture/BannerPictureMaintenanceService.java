@@ -8,4 +8,14 @@ public interface BannerPictureMaintenanceService {
      * Removes expired banner pictures.
      */
     void removeExpired();
+
+    /**
+     * Queues rendering of pending banner pictures.
+     */
+    void renderPending();
+
+    /**
+     * Queues rendering of missing size variants of banner pictures.
+     */
+    void renderPendingVariants();
 }
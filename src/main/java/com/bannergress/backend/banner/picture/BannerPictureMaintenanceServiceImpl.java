@@ -10,7 +10,7 @@ import java.util.concurrent.TimeUnit;
 /**
  * Implements {@link BannerPictureService} to call
  * {@link BannerPictureService#removeExpired()} at a fixed rate to remove orphaned banner
- * pictures.
+ * pictures, and {@link BannerPictureService#renderPending()} to retry rendering of pending pictures.
  */
 @Service
 @EnableScheduling
@@ -25,4 +25,16 @@ public class BannerPictureMaintenanceServiceImpl implements BannerPictureMainten
         bannerPictureService.removeExpired();
     }
 
+    @Override
+    @Scheduled(fixedRate = 5, timeUnit = TimeUnit.MINUTES)
+    public void renderPending() {
+        bannerPictureService.renderPending();
+    }
+
+    @Override
+    @Scheduled(initialDelay = 5, fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
+    public void renderPendingVariants() {
+        bannerPictureService.renderPendingVariants();
+    }
+
 }
@@ -0,0 +1,150 @@
+package com.bannergress.backend.banner.picture;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded worker pool which renders banner pictures in the background. Jobs are coalesced by picture hash, so a
+ * picture is rendered only once even if several banners or edits request it at the same time.
+ * <p>
+ * Pictures which are requested before they are rendered can also be rendered on the requesting thread, with
+ * concurrent requests for the same picture waiting for a single render.
+ */
+@Component
+class BannerPictureRenderQueue implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(BannerPictureRenderQueue.class);
+
+    private final ThreadPoolExecutor executor;
+
+    /** Hashes of pictures which are queued or being rendered. */
+    private final Set<String> pendingHashes = ConcurrentHashMap.newKeySet();
+
+    /** Renders running on requesting threads by hash, completed once the picture is stored or queued. */
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    /** Limits renders on requesting threads to the number of background workers. */
+    private final Semaphore onReadPermits;
+
+    private final Timer renderTimer;
+
+    BannerPictureRenderQueue(MeterRegistry meterRegistry, @Value("${picture.render.threads:4}") int threads,
+                             @Value("${picture.render.queue-capacity:1000}") int queueCapacity) {
+        executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+            new ArrayBlockingQueue<>(queueCapacity));
+        executor.allowCoreThreadTimeOut(true);
+        onReadPermits = new Semaphore(threads);
+        Gauge.builder("banner.picture.render.queue", executor, e -> e.getQueue().size())
+            .description("Number of banner pictures waiting to be rendered").register(meterRegistry);
+        renderTimer = Timer.builder("banner.picture.render").description("Time to render a banner picture")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Submits a render job, unless a job for the same picture is already queued or running.
+     *
+     * @param hash Hash of the picture.
+     * @param job  Job which renders and stores the picture.
+     * @return <code>true</code> if the job was accepted or a job for the picture is pending already.
+     */
+    boolean submit(String hash, Runnable job) {
+        if (!pendingHashes.add(hash)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    renderTimer.record(job);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to render banner picture {}", hash, e);
+                } finally {
+                    pendingHashes.remove(hash);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Queue is full, the picture stays pending and is retried by the maintenance task
+            pendingHashes.remove(hash);
+            return false;
+        }
+    }
+
+    /**
+     * Renders a picture on the calling thread. If the same picture is already rendered on another thread, waits for
+     * that render instead. If the picture is pending in the background or too many pictures are rendered on requesting
+     * threads, the calling thread does not render. Failures are logged, so that callers serve the placeholder.
+     *
+     * @param hash Hash of the picture.
+     * @param job  Job which renders and stores the picture.
+     * @return <code>true</code> if the job was run successfully by this or another requesting thread,
+     *         <code>false</code> if it failed or was left to the background workers.
+     */
+    boolean renderNow(String hash, Runnable job) {
+        if (isPending(hash)) {
+            return false;
+        }
+        CompletableFuture<Boolean> render = new CompletableFuture<>();
+        CompletableFuture<Boolean> existingRender = inFlight.putIfAbsent(hash, render);
+        if (existingRender != null) {
+            return existingRender.join();
+        }
+        boolean rendered = false;
+        try {
+            if (!onReadPermits.tryAcquire()) {
+                submit(hash, job);
+                return false;
+            }
+            try {
+                renderTimer.record(job);
+                rendered = true;
+            } catch (RuntimeException e) {
+                logger.warn("Failed to render banner picture {} on read", hash, e);
+            } finally {
+                onReadPermits.release();
+            }
+            return rendered;
+        } finally {
+            render.complete(rendered);
+            inFlight.remove(hash, render);
+        }
+    }
+
+    /**
+     * Checks whether a picture is queued or being rendered.
+     *
+     * @param hash Hash of the picture.
+     * @return <code>true</code> if the picture is pending.
+     */
+    boolean isPending(String hash) {
+        return pendingHashes.contains(hash);
+    }
+
+    /**
+     * Checks whether no pictures are waiting to be rendered in the background.
+     *
+     * @return <code>true</code> if the queue is empty.
+     */
+    boolean isIdle() {
+        return executor.getQueue().isEmpty();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -9,7 +9,8 @@ import java.util.Optional;
  */
 public interface BannerPictureService {
     /**
-     * Refreshes a banner picture.
+     * Refreshes a banner picture. The banner gets the hash of its new picture immediately; if the picture does not
+     * exist yet, it is rendered in the background after the current transaction is committed.
      *
      * @param banner Banner whose picture should be refreshed.
      */
@@ -17,6 +18,25 @@ public interface BannerPictureService {
 
     Optional<BannerPicture> findByHash(String hash);
 
+    /**
+     * Finds the content of a picture, without loading the picture entity.
+     *
+     * @param hash Hash of the picture.
+     * @param size Size of the picture.
+     * @return Content, or empty if the picture does not exist, is not rendered yet or is not available in the size.
+     */
+    Optional<BannerPictureContent> findContent(String hash, BannerPictureSize size);
+
+    /**
+     * Renders a picture which is not rendered yet, if pictures are rendered on first read, or which was rendered by
+     * another node whose storage is not shared with this node. Concurrent calls for the same picture wait for a single
+     * render.
+     *
+     * @param hash Hash of the picture.
+     * @return Result, {@link RenderOnReadResult#notFound} without rendering if the picture does not exist.
+     */
+    RenderOnReadResult renderOnRead(String hash);
+
     /**
      * Sets a picture as expired.
      *
@@ -25,4 +45,16 @@ public interface BannerPictureService {
     void setPictureExpired(BannerPicture picture);
 
     void removeExpired();
+
+    /**
+     * Queues rendering of pictures which are not rendered yet and are not queued already, for example because
+     * rendering failed or the application was stopped before rendering finished.
+     */
+    void renderPending();
+
+    /**
+     * Queues rendering of the size variants of pictures which were rendered before variants existed, if no other
+     * pictures are waiting to be rendered. The full size content of these pictures stays unchanged.
+     */
+    void renderPendingVariants();
 }
@@ -3,18 +3,25 @@ package com.bannergress.backend.banner.picture;
 import com.bannergress.backend.banner.Banner;
 import com.bannergress.backend.mission.Mission;
 import com.bannergress.backend.mission.MissionStatus;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Sets;
 import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
-import okhttp3.Cache;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
+import jakarta.transaction.Transactional.TxType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
@@ -30,14 +37,26 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
 import java.util.SortedMap;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ForkJoinPool;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Default implementation of {@link BannerPictureService}.
@@ -52,7 +71,33 @@ public class BannerPictureServiceImpl implements BannerPictureService {
      */
     public static final int IMPLEMENTATION_VERSION = 3;
 
-    private static ForkJoinPool threadPool = new ForkJoinPool(20);
+    private static final Logger logger = LoggerFactory.getLogger(BannerPictureServiceImpl.class);
+
+    private static final int TILESIZE = 100;
+
+    private static final int OUTER_PADDING = 2;
+
+    private static final int MISSION_PADDING = (TILESIZE - MissionTileCache.TILE_SIZE) / 2;
+
+    private static final Color BACKGROUND = MissionTileCache.BACKGROUND;
+
+    /** Maximum number of idle JPEG writers kept for reuse. */
+    private static final int MAX_POOLED_WRITERS = 16;
+
+    /** Minimum time between renders of an incomplete picture triggered by reads. */
+    private static final Duration RETRY_INTERVAL = Duration.ofMinutes(5);
+
+    /** Maximum number of pending pictures queued per maintenance run. */
+    private static final int PENDING_BATCH_SIZE = 1_000;
+
+    /** Maximum number of pictures whose variants are queued per maintenance run, if the queue is idle. */
+    private static final int VARIANTS_BATCH_SIZE = 20;
+
+    /** Number of expired pictures deleted per transaction. */
+    private static final int EXPIRED_BATCH_SIZE = 500;
+
+    /** Maximum number of batches per maintenance run, remaining pictures are deleted by the next run. */
+    private static final int MAX_EXPIRED_BATCHES = 100;
 
     /**
      * Banner picture compression quality, a value between 0 for low and 1 for high quality.
@@ -61,13 +106,59 @@ public class BannerPictureServiceImpl implements BannerPictureService {
      */
     private float compressionQuality;
 
+    /**
+     * Whether pictures are rendered on first read instead of when a banner changes. Pictures of banners whose previous
+     * picture was read are still rendered when the banner changes.
+     */
+    @Value("${picture.render.lazy:false}")
+    private boolean lazyRendering;
+
     @Autowired
     EntityManager entityManager;
 
-    private final OkHttpClient client;
+    @Autowired
+    private BannerPictureRenderQueue renderQueue;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BannerPictureStorage storage;
+
+    @Autowired
+    private BannerPictureContentCache contentCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final MissionTileCache tileCache;
+
+    /** Hash after which the next maintenance run continues queueing pending pictures. */
+    private volatile String lastPendingHash = "";
+
+    /** Hash after which the next maintenance run continues queueing pictures with pending variants. */
+    private volatile String lastPendingVariantsHash = "";
+
+    private final Queue<ImageWriter> imageWriters = new ConcurrentLinkedQueue<>();
+
+    /** Hashes of incomplete pictures which were recently rendered again because they were read. */
+    private final Cache<String, Boolean> retriedHashes = CacheBuilder.newBuilder() //
+        .expireAfterWrite(RETRY_INTERVAL) //
+        .maximumSize(10_000) //
+        .build();
+
+    /** Rasters of recently rendered pictures by hash, for redrawing only changed tiles. */
+    private final Cache<String, RenderedRaster> rasterCache;
 
-    public BannerPictureServiceImpl(Cache cache, @Value(value = "${picture.quality:0.92f}") float compressionQuality) {
-        client = new OkHttpClient.Builder().cache(cache).build();
+    public BannerPictureServiceImpl(MissionTileCache tileCache,
+                                    @Value(value = "${picture.quality:0.92f}") float compressionQuality,
+                                    @Value("${picture.raster-cache.memory-size:134217728}") long rasterCacheSize) {
+        this.tileCache = tileCache;
+        this.rasterCache = CacheBuilder.newBuilder() //
+            .maximumWeight(rasterCacheSize) //
+            .<String, RenderedRaster>weigher((hash, raster) -> raster.image().getWidth() * raster.image().getHeight()
+                * Integer.BYTES) //
+            .build();
         this.compressionQuality = compressionQuality;
     }
 
@@ -75,29 +166,249 @@ public class BannerPictureServiceImpl implements BannerPictureService {
     public void refresh(Banner banner) {
         BannerPicture oldPicture = banner.getPicture();
         setPictureExpired(oldPicture);
+        Optional<String> previousHash = Optional.ofNullable(oldPicture).map(BannerPicture::getHash);
         String hash = hash(banner);
         BannerPicture newPicture = entityManager.find(BannerPicture.class, hash);
         if (newPicture == null) {
-            // Create a new picture
-            byte[] picture = createPicture(banner);
+            // Create a new picture without content, which is rendered in the background
             newPicture = new BannerPicture();
             newPicture.setHash(hash);
-            newPicture.setPicture(picture);
             entityManager.persist(newPicture);
+            if (isRenderedEagerly(oldPicture)) {
+                scheduleRendering(hash, previousHash, banner);
+            }
         } else {
             // Reuse the existing picture, clear potential expiration
             newPicture.setExpiration(null);
+            if (!newPicture.isRendered() && isRenderedEagerly(oldPicture)) {
+                scheduleRendering(hash, previousHash, banner);
+            }
         }
         banner.setPicture(newPicture);
     }
 
+    /**
+     * Checks whether the new picture of a banner is rendered right away. With lazy rendering, this is only the case for
+     * banners whose previous picture was rendered, which means it was read at least once.
+     */
+    private boolean isRenderedEagerly(BannerPicture oldPicture) {
+        return !lazyRendering || (oldPicture != null && oldPicture.isRendered());
+    }
+
+    /**
+     * Queues rendering of a picture once the current transaction is committed, so that the render job finds the
+     * picture entity.
+     */
+    private void scheduleRendering(String hash, Optional<String> previousHash, Banner banner) {
+        Banner copy = copyForRendering(banner);
+        afterCommit(() -> renderQueue.submit(hash, () -> render(hash, previousHash, copy)));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Copies the picture-relevant attributes of a banner, so that it can be rendered outside of the current
+     * persistence context.
+     */
+    private static Banner copyForRendering(Banner banner) {
+        Banner copy = new Banner();
+        copy.setUuid(banner.getUuid());
+        copy.setWidth(banner.getWidth());
+        copy.setNumberOfMissions(banner.getNumberOfMissions());
+        copy.setNumberOfSubmittedMissions(banner.getNumberOfSubmittedMissions());
+        copy.setNumberOfDisabledMissions(banner.getNumberOfDisabledMissions());
+        copy.setPlaceholders(new TreeSet<>(banner.getPlaceholders()));
+        SortedMap<Integer, Mission> missions = new TreeMap<>();
+        banner.getMissions().forEach((position, mission) -> {
+            Mission missionCopy = new Mission();
+            missionCopy.setPicture(mission.getPicture());
+            missionCopy.setStatus(mission.getStatus());
+            missions.put(position, missionCopy);
+        });
+        copy.setMissions(missions);
+        return copy;
+    }
+
+    private void render(String hash, Optional<String> previousHash, Banner banner) {
+        if (isRendered(hash) && isStored(hash)) {
+            // Rendered on read in the meantime
+            return;
+        }
+        RenderedPictures pictures = createPictures(banner, previousHash);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            BannerPicture bannerPicture = entityManager.find(BannerPicture.class, hash);
+            if (bannerPicture != null) {
+                storage.write(bannerPicture, pictures.contents());
+                // Pictures with placeholders for failed mission pictures stay pending, so that they are rendered again
+                bannerPicture.setRendered(pictures.complete());
+                bannerPicture.setVariantsPending(false);
+            }
+        });
+        // Content of a previous, incomplete render may be cached
+        contentCache.invalidate(hash);
+        if (!pictures.complete()) {
+            meterRegistry.counter("banner.picture.render.incomplete").increment();
+        }
+    }
+
+    private boolean isRendered(String hash) {
+        return findRendered(hash).orElse(false);
+    }
+
+    /** Finds whether a picture is rendered, without loading the picture entity. Empty if the picture does not exist. */
+    private Optional<Boolean> findRendered(String hash) {
+        return new TransactionTemplate(transactionManager).execute(status -> entityManager
+            .createQuery("SELECT p.rendered FROM BannerPicture p WHERE p.hash = :hash", Boolean.class)
+            .setParameter("hash", hash).getResultStream().findAny());
+    }
+
+    /** Checks whether the content of a rendered picture is available, as it may be rendered by another node. */
+    private boolean isStored(String hash) {
+        return storage.isShared() || storage.read(hash, BannerPictureSize.full).isPresent();
+    }
+
+    @Override
+    @Transactional(TxType.NOT_SUPPORTED)
+    public RenderOnReadResult renderOnRead(String hash) {
+        // Checked before a render permit is taken, so that requests for unknown hashes are cheap
+        Optional<Boolean> rendered = findRendered(hash);
+        if (rendered.isEmpty()) {
+            return RenderOnReadResult.notFound;
+        }
+        if (!lazyRendering && (storage.isShared() || !rendered.get())) {
+            return RenderOnReadResult.deferred;
+        }
+        // Rendered outside of a transaction, so that waiting requests find the stored picture
+        return renderQueue.renderNow(hash, () -> renderStored(hash)) ? RenderOnReadResult.rendered
+            : RenderOnReadResult.deferred;
+    }
+
+    /** Renders a pending or locally missing picture from the first banner which uses it. */
+    private void renderStored(String hash) {
+        Banner banner = new TransactionTemplate(transactionManager).execute(status -> {
+            BannerPicture picture = entityManager.find(BannerPicture.class, hash);
+            if (picture == null || picture.getBanners().isEmpty() || (picture.isRendered() && isStored(hash))) {
+                return null;
+            }
+            return copyForRendering(picture.getBanners().get(0));
+        });
+        if (banner != null) {
+            render(hash, Optional.of(hash), banner);
+        }
+    }
+
+    @Override
+    public void renderPending() {
+        if (lazyRendering) {
+            // Pending pictures are rendered when they are read
+            return;
+        }
+        // Renders in chunks to keep the queue free for new pictures. Continues after the last chunk, so that pictures
+        // which keep failing do not starve the others.
+        List<String> hashes = entityManager.createQuery("SELECT p.hash FROM BannerPicture p WHERE p.rendered = false"
+            + " AND p.hash > :after AND EXISTS (SELECT b FROM Banner b WHERE b.picture = p) ORDER BY p.hash",
+            String.class).setParameter("after", lastPendingHash).setMaxResults(PENDING_BATCH_SIZE).getResultList();
+        lastPendingHash = hashes.size() < PENDING_BATCH_SIZE ? "" : hashes.getLast();
+        List<String> unqueued = hashes.stream().filter(hash -> !renderQueue.isPending(hash)).toList();
+        if (unqueued.isEmpty()) {
+            return;
+        }
+        findBannersForRendering(unqueued).forEach((hash, banner) -> {
+            Banner copy = copyForRendering(banner);
+            // Pictures rendered with failed mission pictures are still cached, so only the failed tiles are redrawn
+            renderQueue.submit(hash, () -> render(hash, Optional.of(hash), copy));
+        });
+    }
+
+    @Override
+    public void renderPendingVariants() {
+        if (!renderQueue.isIdle()) {
+            // Pending and changed pictures go first
+            return;
+        }
+        List<String> hashes = entityManager.createQuery("SELECT p.hash FROM BannerPicture p"
+            + " WHERE p.variantsPending = true AND p.hash > :after"
+            + " AND EXISTS (SELECT b FROM Banner b WHERE b.picture = p) ORDER BY p.hash", String.class)
+            .setParameter("after", lastPendingVariantsHash).setMaxResults(VARIANTS_BATCH_SIZE).getResultList();
+        lastPendingVariantsHash = hashes.size() < VARIANTS_BATCH_SIZE ? "" : hashes.getLast();
+        List<String> unqueued = hashes.stream().filter(hash -> !renderQueue.isPending(hash)).toList();
+        if (unqueued.isEmpty()) {
+            return;
+        }
+        findBannersForRendering(unqueued).forEach((hash, banner) -> {
+            Banner copy = copyForRendering(banner);
+            renderQueue.submit(hash, () -> renderVariants(hash, copy));
+        });
+    }
+
+    /**
+     * Finds one banner per picture with its missions and placeholders, without loading picture content.
+     *
+     * @param hashes Hashes of the pictures.
+     * @return Banners by picture hash.
+     */
+    private Map<String, Banner> findBannersForRendering(List<String> hashes) {
+        Map<String, Banner> banners = new HashMap<>();
+        entityManager.createQuery("SELECT b.picture.hash, b FROM Banner b LEFT JOIN FETCH b.missions"
+            + " WHERE b.picture.hash IN :hashes", Object[].class).setParameter("hashes", hashes).getResultList()
+            .forEach(row -> banners.putIfAbsent((String) row[0], (Banner) row[1]));
+        if (banners.isEmpty()) {
+            // Banners may have been changed in the meantime, and an empty IN list is not valid
+            return banners;
+        }
+        entityManager.createQuery("SELECT b FROM Banner b LEFT JOIN FETCH b.placeholders WHERE b IN :banners",
+            Banner.class).setParameter("banners", banners.values()).getResultList();
+        return banners;
+    }
+
+    /**
+     * Renders the size variants of a picture which was rendered before variants existed. The stored full size
+     * content is kept, so that it does not change for its hash.
+     */
+    private void renderVariants(String hash, Banner banner) {
+        Optional<Resource> full = storage.read(hash, BannerPictureSize.full);
+        if (full.isEmpty()) {
+            // Not stored on this node, the picture is rendered completely when it is read
+            return;
+        }
+        RenderedPictures pictures = createPictures(banner, Optional.empty());
+        if (!pictures.complete()) {
+            // Tried again by a later maintenance run
+            return;
+        }
+        Map<BannerPictureSize, byte[]> contents = new EnumMap<>(pictures.contents());
+        try {
+            contents.put(BannerPictureSize.full, full.get().getContentAsByteArray());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            BannerPicture bannerPicture = entityManager.find(BannerPicture.class, hash);
+            if (bannerPicture != null && bannerPicture.isVariantsPending()) {
+                storage.write(bannerPicture, contents);
+                bannerPicture.setVariantsPending(false);
+            }
+        });
+    }
+
     /**
      * Calculates a hash over all picture-relevant attributes of a banner.
      *
      * @param banner Banner.
      * @return Hash.
      */
-    private String hash(Banner banner) {
+    String hash(Banner banner) {
         Hasher hasher = Hashing.murmur3_128().newHasher();
         hasher.putInt(IMPLEMENTATION_VERSION).putFloat(compressionQuality).putInt(banner.getWidth());
         for (Entry<Integer, Mission> entry : banner.getMissions().entrySet()) {
@@ -125,93 +436,240 @@ public class BannerPictureServiceImpl implements BannerPictureService {
         return hasher.hash().toString();
     }
 
-    private boolean isOnlyDisabledOrSubmitted(Banner banner) {
+    private static boolean isOnlyDisabledOrSubmitted(Banner banner) {
         return banner.getNumberOfDisabledMissions() + banner.getNumberOfSubmittedMissions() == banner.getNumberOfMissions();
     }
 
-    private static final BufferedImage maskImageOnline = loadImage("mask-100-online.png");
-    private static final BufferedImage maskImageOffline = loadImage("mask-100-offline.png");
-    private static final BufferedImage maskImagePlaceholder = loadImage("mask-100-placeholder.png");
+    private static final BufferedImage maskImageOnline = loadMask("mask-100-online.png");
+    private static final BufferedImage maskImageOffline = loadMask("mask-100-offline.png");
+    private static final BufferedImage maskImagePlaceholder = loadMask("mask-100-placeholder.png");
 
-    private static BufferedImage loadImage(String path) {
+    /**
+     * Loads a mask, scaled to the tile size and converted to a premultiplied raster, so that drawing it is a plain
+     * blending blit.
+     */
+    private static BufferedImage loadMask(String path) {
         try (InputStream stream = BannerPictureServiceImpl.class.getResourceAsStream(path)) {
-            return ImageIO.read(stream);
+            BufferedImage image = ImageIO.read(stream);
+            BufferedImage mask = new BufferedImage(TILESIZE, TILESIZE, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D graphics = mask.createGraphics();
+            try {
+                graphics.setComposite(AlphaComposite.Src);
+                graphics.drawImage(image, 0, 0, TILESIZE, TILESIZE, 0, 0, image.getWidth(), image.getHeight(), null);
+            } finally {
+                graphics.dispose();
+            }
+            return mask;
         } catch (IOException ex) {
             throw new RuntimeException(ex);
         }
     }
 
     protected byte[] createPicture(Banner banner) {
+        return encode(createRaster(banner, Optional.empty()).image(), banner);
+    }
+
+    /**
+     * Creates a banner picture in all sizes.
+     *
+     * @param banner       Banner.
+     * @param previousHash Hash of the previous picture of the banner, if any.
+     * @return Picture content by size.
+     */
+    RenderedPictures createPictures(Banner banner, Optional<String> previousHash) {
+        Map<BannerPictureSize, byte[]> pictures = new EnumMap<>(BannerPictureSize.class);
+        RenderedRaster raster = createRaster(banner, previousHash);
+        BufferedImage image = raster.image();
+        int divisor = 1;
+        for (BannerPictureSize size : BannerPictureSize.values()) {
+            // Halving repeatedly with bilinear interpolation averages all source pixels, unlike a single large step
+            for (; divisor < size.getDivisor(); divisor *= 2) {
+                image = halve(image);
+            }
+            pictures.put(size, encode(image, banner));
+        }
+        return new RenderedPictures(pictures, raster.complete());
+    }
+
+    private static BufferedImage halve(BufferedImage image) {
+        BufferedImage result = new BufferedImage(image.getWidth() / 2, image.getHeight() / 2,
+            BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, result.getWidth(), result.getHeight(), null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+
+    /**
+     * Renders the raster of a banner picture in full size. If the raster of the previous picture of the banner is
+     * still cached and has the same dimensions, only the tiles whose mission picture, overlay or placeholder changed
+     * are redrawn.
+     *
+     * @param banner       Banner.
+     * @param previousHash Hash of the previous picture of the banner, if any.
+     * @return Raster, whose image must not be modified.
+     */
+    private RenderedRaster createRaster(Banner banner, Optional<String> previousHash) {
         final int numberColumns = banner.getWidth();
-        boolean onlyDisabledOrSubmitted = isOnlyDisabledOrSubmitted(banner);
-        SortedMap<Integer, Optional<Mission>> missionsAndPlaceholders = banner.getMissionsAndPlaceholders();
-        final int numberRows = missionsAndPlaceholders.lastKey() / numberColumns + 1;
-        final int TILESIZE = 100;
-        final int OUTER_PADDING = 2;
-        final int MISSION_PADDING = 2;
-        BufferedImage bannerImage = new BufferedImage(numberColumns * TILESIZE + 2 * OUTER_PADDING,
-            numberRows * TILESIZE + 2 * OUTER_PADDING, BufferedImage.TYPE_INT_RGB);
+        SortedMap<Integer, Tile> tiles = getTiles(banner);
+        final int numberRows = tiles.lastKey() / numberColumns + 1;
+        BufferedImage bannerImage;
+        Set<Integer> changedPositions;
+        Optional<RenderedRaster> previous = previousHash.map(rasterCache::getIfPresent)
+            .filter(raster -> raster.columns() == numberColumns && raster.rows() == numberRows);
+        if (previous.isPresent()) {
+            // Copy, as the previous raster may be shared with other banners using the same picture
+            BufferedImage previousImage = previous.get().image();
+            bannerImage = new BufferedImage(previousImage.getColorModel(), previousImage.copyData(null), false, null);
+            changedPositions = new TreeSet<>(Sets.union(tiles.keySet(), previous.get().tiles().keySet()));
+            changedPositions.removeIf(position -> Objects.equals(tiles.get(position),
+                previous.get().tiles().get(position)));
+        } else {
+            bannerImage = new BufferedImage(numberColumns * TILESIZE + 2 * OUTER_PADDING,
+                numberRows * TILESIZE + 2 * OUTER_PADDING, BufferedImage.TYPE_INT_RGB);
+            changedPositions = tiles.keySet();
+        }
         Graphics2D graphics = bannerImage.createGraphics();
-        graphics.setPaint(new Color(46, 46, 46));
-        graphics.fillRect(0, 0, bannerImage.getWidth(), bannerImage.getHeight());
-        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        graphics.setPaint(BACKGROUND);
+        if (previous.isEmpty()) {
+            graphics.fillRect(0, 0, bannerImage.getWidth(), bannerImage.getHeight());
+        }
         graphics.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER));
 
-        // loads, draws and masks the individual mission images to the banner image.
+        // Fetches the mission pictures of all changed tiles concurrently, then draws the tiles one by one
+        Map<Integer, CompletableFuture<BufferedImage>> missionImages = new HashMap<>();
+        for (Integer position : changedPositions) {
+            Tile tile = tiles.get(position);
+            if (tile != null && tile.picture() != null) {
+                missionImages.put(position, tileCache.getAsync(tile.picture()));
+            }
+        }
+        SortedMap<Integer, Tile> drawnTiles = new TreeMap<>(tiles);
         try {
-            threadPool.submit(() -> missionsAndPlaceholders.entrySet().parallelStream().forEach(entry -> {
-                Optional<BufferedImage> optionalMissionImage = entry.getValue().map(Mission::getPicture)
-                    .filter(Objects::nonNull).map(url -> {
-                        Request request = new Request.Builder().url(url).build();
-                        try (Response response = client.newCall(request).execute()) {
-                            return ImageIO.read(response.body().byteStream());
-                        } catch (IOException ex) {
-                            throw new RuntimeException("failed to read image: " + url, ex);
-                        }
-                    });
-                int missionPosition = numberColumns * numberRows - entry.getKey().intValue() - 1;
+            for (Integer position : changedPositions) {
+                int missionPosition = numberColumns * numberRows - position.intValue() - 1;
                 int x1 = OUTER_PADDING + (missionPosition % numberColumns) * TILESIZE;
                 int y1 = OUTER_PADDING + (missionPosition / numberColumns) * TILESIZE;
-                int x2 = x1 + TILESIZE;
-                int y2 = y1 + TILESIZE;
-                synchronized (graphics) {
-                    optionalMissionImage.ifPresent(missionImage -> {
-                        graphics.drawImage(missionImage, x1 + MISSION_PADDING, y1 + MISSION_PADDING,
-                            x2 - MISSION_PADDING, y2 - MISSION_PADDING, 0, 0, missionImage.getWidth(),
-                            missionImage.getHeight(), null);
-                    });
-                    MissionStatus drawStatus = entry.getValue().map(Mission::getStatus).orElse(MissionStatus.submitted);
-                    drawOverlay(graphics, x1, y1, x2, y2, drawStatus, onlyDisabledOrSubmitted);
+                if (previous.isPresent()) {
+                    graphics.fillRect(x1, y1, TILESIZE, TILESIZE);
+                }
+                Tile tile = tiles.get(position);
+                if (tile == null) {
+                    continue;
                 }
-            })).get();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+                Optional<BufferedImage> missionImage = getMissionImage(missionImages.get(position), tile);
+                if (tile.picture() != null && missionImage.isEmpty()) {
+                    // Drawn as placeholder, and recorded as such so that the retry of the picture redraws it
+                    Tile failedTile = new Tile(null, maskImagePlaceholder);
+                    drawnTiles.put(position, failedTile);
+                    graphics.drawImage(failedTile.overlay(), x1, y1, null);
+                } else {
+                    // Tiles are opaque and already scaled to TILESIZE - 2 * MISSION_PADDING, so they are copied directly
+                    missionImage.ifPresent(image -> bannerImage.getRaster().setDataElements(x1 + MISSION_PADDING,
+                        y1 + MISSION_PADDING, image.getRaster()));
+                    graphics.drawImage(tile.overlay(), x1, y1, null);
+                }
+            }
         } finally {
             graphics.dispose();
         }
+        RenderedRaster raster = new RenderedRaster(bannerImage, drawnTiles, numberColumns, numberRows,
+            drawnTiles.equals(tiles));
+        rasterCache.put(hash(banner), raster);
+        return raster;
+    }
 
-        try (ByteArrayOutputStream stream = new ByteArrayOutputStream(24 * 1024 * numberRows);
+    private static Optional<BufferedImage> getMissionImage(CompletableFuture<BufferedImage> future, Tile tile) {
+        if (future == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(future.join());
+        } catch (CompletionException | CancellationException ex) {
+            logger.warn("Failed to load mission picture {}, drawing a placeholder", tile.picture(), ex.getCause());
+            return Optional.empty();
+        }
+    }
+
+    private byte[] encode(BufferedImage bannerImage, Banner banner) {
+        // About 24 KB per row of full size tiles
+        int expectedSize = bannerImage.getWidth() * bannerImage.getHeight() * 2 / 5;
+        // Looking up a writer through the service registry is comparatively expensive, so writers are reused
+        ImageWriter imageWriter = Optional.ofNullable(imageWriters.poll())
+            .orElseGet(() -> ImageIO.getImageWritersByFormatName("jpg").next());
+        try (ByteArrayOutputStream stream = new ByteArrayOutputStream(expectedSize);
             ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(stream)) {
-            ImageWriter imageWriter = ImageIO.getImageWritersByFormatName("jpg").next();
             ImageWriteParam imageWriteParam = imageWriter.getDefaultWriteParam();
             imageWriteParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
             imageWriteParam.setCompressionQuality(compressionQuality);
             imageWriter.setOutput(imageOutputStream);
             imageWriter.write(null, new IIOImage(bannerImage, null, null), imageWriteParam);
-            imageWriter.dispose();
             return stream.toByteArray();
         } catch (IOException ex) {
             throw new RuntimeException("failed to generate banner with id " + banner.getUuid(), ex);
+        } finally {
+            releaseImageWriter(imageWriter);
+        }
+    }
+
+    private void releaseImageWriter(ImageWriter imageWriter) {
+        imageWriter.reset();
+        if (imageWriters.size() < MAX_POOLED_WRITERS) {
+            imageWriters.offer(imageWriter);
+        } else {
+            imageWriter.dispose();
         }
     }
 
-    private void drawOverlay(Graphics2D graphics, int x1, int y1, int x2, int y2, MissionStatus status,
-                             boolean onlyDisabledOrSubmitted) {
-        BufferedImage maskImage = getMaskImage(status, onlyDisabledOrSubmitted);
-        graphics.drawImage(maskImage, x1, y1, x2, y2, 0, 0, maskImage.getWidth(), maskImage.getHeight(), null);
+    /**
+     * Calculates the state of all tiles from the same attributes as {@link #hash(Banner)}.
+     *
+     * @param banner Banner.
+     * @return Tiles by position.
+     */
+    private static SortedMap<Integer, Tile> getTiles(Banner banner) {
+        boolean onlyDisabledOrSubmitted = isOnlyDisabledOrSubmitted(banner);
+        SortedMap<Integer, Tile> tiles = new TreeMap<>();
+        banner.getMissionsAndPlaceholders().forEach((position, mission) -> {
+            MissionStatus status = mission.map(Mission::getStatus).orElse(MissionStatus.submitted);
+            tiles.put(position, new Tile(mission.map(Mission::getPicture).map(URL::toString).orElse(null),
+                getMaskImage(status, onlyDisabledOrSubmitted)));
+        });
+        return tiles;
+    }
+
+    /**
+     * State of a single tile.
+     *
+     * @param picture URL of the mission picture, or <code>null</code> for placeholders and missions without picture.
+     * @param overlay Overlay drawn over the mission picture.
+     */
+    private record Tile(String picture, BufferedImage overlay) {
+    }
+
+    /**
+     * Uncompressed raster of a rendered picture, together with the tiles drawn onto it.
+     *
+     * @param complete Whether all mission pictures could be drawn.
+     */
+    private record RenderedRaster(BufferedImage image, SortedMap<Integer, Tile> tiles, int columns, int rows,
+                                  boolean complete) {
+    }
+
+    /**
+     * Content of a rendered picture in all sizes.
+     *
+     * @param contents Content by size.
+     * @param complete Whether all mission pictures could be drawn. Incomplete pictures show placeholders instead.
+     */
+    record RenderedPictures(Map<BannerPictureSize, byte[]> contents, boolean complete) {
     }
 
-    private BufferedImage getMaskImage(MissionStatus status, boolean onlyDisabledOrSubmitted) {
+    private static BufferedImage getMaskImage(MissionStatus status, boolean onlyDisabledOrSubmitted) {
         switch (status) {
             case published:
                 return maskImageOnline;
@@ -229,6 +687,34 @@ public class BannerPictureServiceImpl implements BannerPictureService {
         return Optional.ofNullable(entityManager.find(BannerPicture.class, hash));
     }
 
+    @Override
+    public Optional<BannerPictureContent> findContent(String hash, BannerPictureSize size) {
+        Optional<Resource> cached = contentCache.getIfPresent(hash, size);
+        if (cached.isPresent()) {
+            return Optional.of(new BannerPictureContent(cached.get(), true));
+        }
+        Optional<Resource> stored = storage.read(hash, size);
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!isRendered(hash)) {
+            // Content with placeholders for failed mission pictures, replaced when the picture is rendered again
+            retryIncomplete(hash);
+            return Optional.of(new BannerPictureContent(stored.get(), false));
+        }
+        return Optional.of(new BannerPictureContent(contentCache.put(hash, size, stored.get()), true));
+    }
+
+    /**
+     * With lazy rendering, the maintenance task does not render pending pictures, so incomplete pictures are rendered
+     * again in the background when they are read, at most once per retry interval.
+     */
+    private void retryIncomplete(String hash) {
+        if (lazyRendering && retriedHashes.asMap().putIfAbsent(hash, Boolean.TRUE) == null) {
+            renderQueue.submit(hash, () -> renderStored(hash));
+        }
+    }
+
     @Override
     public void setPictureExpired(BannerPicture picture) {
         if (picture != null) {
@@ -236,18 +722,52 @@ public class BannerPictureServiceImpl implements BannerPictureService {
         }
     }
 
+    /**
+     * Removes expired pictures in batches, each in its own transaction, so that locks are held briefly and a run after
+     * a mass recalculation does not hold all rows in memory. Pictures which are referenced again are retained with a
+     * single update. Picture content is never loaded.
+     */
     @Override
+    @Transactional(TxType.NOT_SUPPORTED)
     public void removeExpired() {
-        TypedQuery<BannerPicture> query = entityManager
-            .createQuery("SELECT p FROM BannerPicture p WHERE p.expiration < :now", BannerPicture.class);
-        query.setParameter("now", Instant.now());
-        List<BannerPicture> pictures = query.getResultList();
-        for (BannerPicture picture : pictures) {
-            if (picture.getBanners().isEmpty()) {
-                entityManager.remove(picture);
-            } else {
-                picture.setExpiration(null);
+        Instant now = Instant.now();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int retained = transactionTemplate.execute(status -> entityManager
+            .createQuery("UPDATE BannerPicture p SET p.expiration = NULL WHERE p.expiration < :now"
+                + " AND EXISTS (SELECT b FROM Banner b WHERE b.picture = p)")
+            .setParameter("now", now).executeUpdate());
+        int deleted = 0;
+        for (int batch = 0; batch < MAX_EXPIRED_BATCHES; batch++) {
+            List<String> hashes = transactionTemplate.execute(status -> deleteExpiredBatch(now));
+            for (String hash : hashes) {
+                contentCache.invalidate(hash);
+                storage.delete(hash);
+            }
+            deleted += hashes.size();
+            if (hashes.size() < EXPIRED_BATCH_SIZE) {
+                break;
             }
         }
+        if (deleted > 0 || retained > 0) {
+            logger.info("Removed {} expired banner pictures, retained {} which are in use again", deleted, retained);
+        }
+        meterRegistry.counter("banner.picture.expired", "result", "deleted").increment(deleted);
+        meterRegistry.counter("banner.picture.expired", "result", "retained").increment(retained);
+    }
+
+    /**
+     * Deletes a batch of expired pictures which are not referenced by any banner. Rows locked by another node are
+     * skipped, so that nodes running the job concurrently do not block each other.
+     *
+     * @param now Current time.
+     * @return Hashes of the deleted pictures.
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> deleteExpiredBatch(Instant now) {
+        return entityManager.createNativeQuery("DELETE FROM banner_picture WHERE hash IN ("
+            + "SELECT p.hash FROM banner_picture p WHERE p.expiration < :now"
+            + " AND NOT EXISTS (SELECT 1 FROM banner b WHERE b.picture = p.hash)"
+            + " LIMIT :limit FOR UPDATE SKIP LOCKED) RETURNING hash", String.class)
+            .setParameter("now", now).setParameter("limit", EXPIRED_BATCH_SIZE).getResultList();
     }
 }
@@ -0,0 +1,37 @@
+package com.bannergress.backend.banner.picture;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Available sizes of banner pictures.
+ */
+@Schema(enumAsRef = true)
+public enum BannerPictureSize {
+    /**
+     * Full size, 100 pixels per mission.
+     */
+    full(1),
+    /**
+     * Half size, 50 pixels per mission.
+     */
+    half(2),
+    /**
+     * Quarter size, 25 pixels per mission.
+     */
+    quarter(4);
+
+    private final int divisor;
+
+    BannerPictureSize(int divisor) {
+        this.divisor = divisor;
+    }
+
+    /**
+     * Gets the factor by which the width and height of the full size picture are divided.
+     *
+     * @return Divisor.
+     */
+    public int getDivisor() {
+        return divisor;
+    }
+}
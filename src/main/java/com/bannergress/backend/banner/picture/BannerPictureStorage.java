@@ -0,0 +1,45 @@
+package com.bannergress.backend.banner.picture;
+
+import org.springframework.core.io.Resource;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Storage backend for the content of banner pictures. Content is addressed by the picture hash and only changes for a
+ * hash when an incomplete picture is rendered again, so backends do not need to handle concurrent updates of different
+ * content.
+ */
+interface BannerPictureStorage {
+    /**
+     * Reads the content of a picture.
+     *
+     * @param hash Hash of the picture.
+     * @param size Size of the picture.
+     * @return Content, or empty if the picture is not stored in the requested size.
+     */
+    Optional<Resource> read(String hash, BannerPictureSize size);
+
+    /**
+     * Stores the content of a picture. Must be called in a transaction.
+     *
+     * @param picture  Picture entity.
+     * @param contents Content by size.
+     */
+    void write(BannerPicture picture, Map<BannerPictureSize, byte[]> contents);
+
+    /**
+     * Checks whether all nodes see the same content. Otherwise, pictures rendered by another node are missing from
+     * this storage and are rendered again when they are read.
+     *
+     * @return <code>true</code> if content is shared between nodes.
+     */
+    boolean isShared();
+
+    /**
+     * Deletes the content of a picture in all sizes. Must be called after the picture entity was removed.
+     *
+     * @param hash Hash of the picture.
+     */
+    void delete(String hash);
+}
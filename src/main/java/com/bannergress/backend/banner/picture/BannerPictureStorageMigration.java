@@ -0,0 +1,107 @@
+package com.bannergress.backend.banner.picture;
+
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves picture content which is still stored in the database to the file system storage, in small batches so that
+ * the job neither holds long transactions nor loads many pictures into the heap at once. Batches are locked, so that
+ * nodes running the job concurrently do not move the same pictures. Pictures which cannot be written are logged and
+ * stay in the database until the next run.
+ * <p>
+ * If the directory is not shared by all nodes, the job should only be enabled on one node. Other nodes render moved
+ * pictures again when they are read.
+ */
+@Component
+@ConditionalOnProperty(name = "picture.storage.type", havingValue = "filesystem")
+class BannerPictureStorageMigration {
+    private static final Logger logger = LoggerFactory.getLogger(BannerPictureStorageMigration.class);
+
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private BannerPictureStorage storage;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${picture.storage.migration.enabled:true}")
+    private boolean enabled;
+
+    @Scheduled(initialDelay = 1, fixedDelay = 60, timeUnit = TimeUnit.MINUTES)
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int total = 0;
+        int failed = 0;
+        String after = "";
+        Batch batch;
+        do {
+            String batchAfter = after;
+            batch = transactionTemplate.execute(status -> migrateBatch(batchAfter));
+            total += batch.migrated();
+            failed += batch.hashes().size() - batch.migrated();
+            if (!batch.hashes().isEmpty()) {
+                // Continues after the batch, so that pictures which failed are not selected again in this run
+                after = batch.hashes().getLast();
+            }
+        } while (batch.hashes().size() == BATCH_SIZE);
+        if (total > 0 || failed > 0) {
+            logger.info("Moved {} banner pictures from the database to the file system, {} failed", total, failed);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Batch migrateBatch(String after) {
+        List<String> hashes = entityManager.createNativeQuery("SELECT hash FROM banner_picture"
+            + " WHERE picture IS NOT NULL AND hash > :after ORDER BY hash LIMIT :limit FOR UPDATE SKIP LOCKED",
+            String.class).setParameter("after", after).setParameter("limit", BATCH_SIZE).getResultList();
+        int migrated = 0;
+        for (String hash : hashes) {
+            BannerPicture picture = entityManager.find(BannerPicture.class, hash);
+            Map<BannerPictureSize, byte[]> contents = new EnumMap<>(BannerPictureSize.class);
+            contents.putAll(picture.getVariants());
+            contents.put(BannerPictureSize.full, picture.getPicture());
+            try {
+                storage.write(picture, contents);
+            } catch (RuntimeException ex) {
+                logger.warn("Failed to move banner picture {} to the file system", hash, ex);
+                continue;
+            }
+            picture.setPicture(null);
+            picture.getVariants().clear();
+            migrated++;
+        }
+        // Written files are deleted again if the batch is rolled back
+        entityManager.flush();
+        entityManager.clear();
+        return new Batch(hashes, migrated);
+    }
+
+    /**
+     * Result of a batch.
+     *
+     * @param hashes   Hashes of the pictures selected for the batch, in ascending order.
+     * @param migrated Number of pictures moved to the file system.
+     */
+    private record Batch(List<String> hashes, int migrated) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.bannergress.backend.banner.picture;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stores picture content in the database, in {@link BannerPicture#getPicture()} and
+ * {@link BannerPicture#getVariants()}. Content is read with queries which do not load the other sizes.
+ */
+@Component
+@ConditionalOnProperty(name = "picture.storage.type", havingValue = "database", matchIfMissing = true)
+class DatabaseBannerPictureStorage implements BannerPictureStorage {
+    @Autowired
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Resource> read(String hash, BannerPictureSize size) {
+        String query = size == BannerPictureSize.full
+            ? "SELECT p.picture FROM BannerPicture p WHERE p.hash = :hash AND p.picture IS NOT NULL"
+            : "SELECT v FROM BannerPicture p JOIN p.variants v WHERE p.hash = :hash AND KEY(v) = :size";
+        TypedQuery<byte[]> typedQuery = entityManager.createQuery(query, byte[].class).setParameter("hash", hash);
+        if (size != BannerPictureSize.full) {
+            typedQuery.setParameter("size", size);
+        }
+        return typedQuery.getResultStream().findFirst().map(ByteArrayResource::new);
+    }
+
+    @Override
+    public void write(BannerPicture picture, Map<BannerPictureSize, byte[]> contents) {
+        Map<BannerPictureSize, byte[]> variants = new HashMap<>(contents);
+        picture.setPicture(variants.remove(BannerPictureSize.full));
+        picture.getVariants().clear();
+        picture.getVariants().putAll(variants);
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    @Override
+    public void delete(String hash) {
+        // Content is removed together with the entity
+    }
+}
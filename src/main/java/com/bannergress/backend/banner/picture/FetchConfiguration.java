@@ -0,0 +1,21 @@
+package com.bannergress.backend.banner.picture;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for fetching mission pictures.
+ *
+ * @param connectTimeout     Timeout for connecting to an image host.
+ * @param readTimeout        Timeout for reading from an image host.
+ * @param callTimeout        Timeout for a single attempt, including connecting, redirects and reading the picture.
+ * @param totalTimeout       Maximum time a render waits for a mission picture, including waiting for the image host
+ *                           and retries. The picture is drawn as placeholder afterwards.
+ * @param perHostConcurrency Maximum number of concurrent fetches per image host.
+ * @param retries            Number of retries after a failed fetch.
+ */
+@ConfigurationProperties("picture.fetch")
+public record FetchConfiguration(Duration connectTimeout, Duration readTimeout, Duration callTimeout,
+                                 Duration totalTimeout, int perHostConcurrency, int retries) {
+}
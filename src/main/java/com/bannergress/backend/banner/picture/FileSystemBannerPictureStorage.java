@@ -0,0 +1,122 @@
+package com.bannergress.backend.banner.picture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Stores picture content as files in a local directory, keyed by the picture hash. Files are served as
+ * {@link FileSystemResource}, which streams them through a file channel instead of loading them into the heap, and
+ * supports range requests.
+ * <p>
+ * Files are spread over subdirectories named after the first two characters of the hash, to keep directories small.
+ * <p>
+ * With several nodes, the directory should be a volume shared by all nodes, which is declared by
+ * <code>picture.storage.shared</code>. Otherwise each node renders the pictures it serves again, and keeps the files
+ * of pictures deleted by another node.
+ */
+@Component
+@ConditionalOnProperty(name = "picture.storage.type", havingValue = "filesystem")
+class FileSystemBannerPictureStorage implements BannerPictureStorage {
+    private static final Logger logger = LoggerFactory.getLogger(FileSystemBannerPictureStorage.class);
+
+    private final Path directory;
+
+    private final boolean shared;
+
+    FileSystemBannerPictureStorage(@Value("${picture.storage.directory:pictures/}") String directory,
+        @Value("${picture.storage.shared:false}") boolean shared) {
+        this.directory = Path.of(directory);
+        this.shared = shared;
+    }
+
+    @Override
+    public Optional<Resource> read(String hash, BannerPictureSize size) {
+        Path file = getFile(hash, size);
+        return Files.isRegularFile(file) ? Optional.of(new FileSystemResource(file)) : Optional.empty();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Files are written immediately, so that they are available once the transaction commits. If the transaction is
+     * rolled back, or a file cannot be written, the written files are deleted again, so that no files remain for
+     * pictures whose state was not stored.
+     */
+    @Override
+    public void write(BannerPicture picture, Map<BannerPictureSize, byte[]> contents) {
+        String hash = picture.getHash();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        delete(hash, contents.keySet());
+                    }
+                }
+            });
+        }
+        try {
+            for (Map.Entry<BannerPictureSize, byte[]> entry : contents.entrySet()) {
+                Path file = getFile(hash, entry.getKey());
+                Files.createDirectories(file.getParent());
+                // Write to a temporary file first, so that readers never see partial files
+                Path temporaryFile = Files.createTempFile(file.getParent(), "picture", ".tmp");
+                try {
+                    Files.write(temporaryFile, entry.getValue());
+                    Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temporaryFile);
+                }
+            }
+        } catch (IOException ex) {
+            delete(hash, contents.keySet());
+            throw new UncheckedIOException("failed to store banner picture " + hash, ex);
+        }
+    }
+
+    @Override
+    public boolean isShared() {
+        return shared;
+    }
+
+    @Override
+    public void delete(String hash) {
+        delete(hash, Set.of(BannerPictureSize.values()));
+    }
+
+    private void delete(String hash, Set<BannerPictureSize> sizes) {
+        for (BannerPictureSize size : sizes) {
+            Path file = getFile(hash, size);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                logger.warn("Failed to delete banner picture {}", file, ex);
+            }
+        }
+    }
+
+    private Path getFile(String hash, BannerPictureSize size) {
+        if (!hash.matches("[0-9a-f]{32}")) {
+            // Also rejects path traversal, as hashes come from request paths
+            return directory.resolve("invalid");
+        }
+        return directory.resolve(hash.substring(0, 2)).resolve(hash + "-" + size + ".jpg");
+    }
+}
@@ -0,0 +1,158 @@
+package com.bannergress.backend.banner.picture;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.Cache;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetches mission pictures on virtual threads. Fetches are limited per image host, so that a slow host only delays
+ * the tiles it serves instead of blocking the fetches of all renders.
+ */
+@Component
+class MissionPictureFetcher implements DisposableBean {
+    private final FetchConfiguration configuration;
+
+    private final OkHttpClient client;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Counter failures;
+
+    /**
+     * Creates a fetcher.
+     *
+     * @param httpCache     HTTP cache for mission pictures, or <code>null</code>.
+     * @param configuration Configuration.
+     * @param meterRegistry Registry for in-flight and failed fetches.
+     */
+    MissionPictureFetcher(Cache httpCache, FetchConfiguration configuration, MeterRegistry meterRegistry) {
+        this.configuration = configuration;
+        this.client = new OkHttpClient.Builder() //
+            .cache(httpCache) //
+            .connectTimeout(configuration.connectTimeout()) //
+            .readTimeout(configuration.readTimeout()) //
+            .callTimeout(configuration.callTimeout()) //
+            .build();
+        Gauge.builder("banner.picture.fetch.in-flight", inFlight, AtomicInteger::get)
+            .description("Number of mission pictures being fetched").register(meterRegistry);
+        failures = Counter.builder("banner.picture.fetch.failures")
+            .description("Number of mission pictures which could not be fetched after all retries")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Runs a task on a virtual thread of the fetcher. The result completes exceptionally with a
+     * {@link java.util.concurrent.TimeoutException} if the task takes longer than the total timeout, while the task
+     * keeps running, so that a later render can use its result.
+     *
+     * @param <T>  Result type.
+     * @param task Task, typically calling {@link #fetch(String)}.
+     * @return Result.
+     */
+    <T> CompletableFuture<T> submit(Callable<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }, executor).orTimeout(configuration.totalTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Fetches and decodes a mission picture, retrying failed attempts. Blocks while the host of the picture is busy.
+     *
+     * @param url URL of the mission picture.
+     * @return Picture.
+     * @throws IOException If the picture could not be fetched or decoded.
+     */
+    BufferedImage fetch(String url) throws IOException {
+        HttpUrl httpUrl = HttpUrl.get(url);
+        Semaphore permits = hostPermits.computeIfAbsent(httpUrl.host(),
+            host -> new Semaphore(configuration.perHostConcurrency()));
+        for (int attempt = 0;; attempt++) {
+            try {
+                return fetchOnce(httpUrl, permits);
+            } catch (IOException ex) {
+                if (attempt >= configuration.retries()) {
+                    failures.increment();
+                    throw ex;
+                }
+                // Backs off without holding a permit, so that other pictures of the host are fetched meanwhile
+                backOff(attempt);
+            }
+        }
+    }
+
+    private BufferedImage fetchOnce(HttpUrl url, Semaphore permits) throws IOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for " + url.host());
+        }
+        inFlight.incrementAndGet();
+        try {
+            return fetchOnce(url);
+        } finally {
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    private BufferedImage fetchOnce(HttpUrl url) throws IOException {
+        Request request = new Request.Builder().url(url).build();
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("unexpected status " + response.code() + " for " + url);
+            }
+            BufferedImage image = ImageIO.read(response.body().byteStream());
+            if (image == null) {
+                throw new IOException("unsupported image format: " + url);
+            }
+            return image;
+        }
+    }
+
+    private static void backOff(int attempt) throws InterruptedIOException {
+        try {
+            Thread.sleep(200L << attempt);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted during retry");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,185 @@
+package com.bannergress.backend.banner.picture;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cache of mission pictures which are already decoded and scaled to the tile size of banner pictures. Tiles are kept
+ * in a bounded in-memory LRU cache and on disk, so that re-rendering a banner only downloads and scales the pictures
+ * of missions that changed.
+ * <p>
+ * Tiles are opaque {@link BufferedImage#TYPE_INT_RGB} images, scaled onto the banner background exactly as the former
+ * renderer drew mission pictures onto the banner, so that they can be copied into a banner raster without blending
+ * and pictures stay identical to the ones rendered before for the same hash. They are shared between render threads
+ * and must not be modified.
+ */
+@Component
+class MissionTileCache {
+    /** Width and height of a tile in pixels. */
+    static final int TILE_SIZE = 96;
+
+    /** Background of banner pictures, which tiles are composited onto. */
+    static final Color BACKGROUND = new Color(46, 46, 46);
+
+    private static final int TILE_BYTES = TILE_SIZE * TILE_SIZE * Integer.BYTES;
+
+    private static final Logger logger = LoggerFactory.getLogger(MissionTileCache.class);
+
+    private final MissionPictureFetcher fetcher;
+
+    private final Path directory;
+
+    private final LoadingCache<String, BufferedImage> tiles;
+
+    private final Counter diskHits;
+
+    private final Counter diskMisses;
+
+    /**
+     * Creates a tile cache.
+     *
+     * @param fetcher       Fetcher for the original mission pictures.
+     * @param directory     Directory for scaled tiles.
+     * @param memorySize    Maximum memory used by tiles in bytes.
+     * @param meterRegistry Registry for hit rate and memory use.
+     */
+    MissionTileCache(MissionPictureFetcher fetcher,
+                     @Value("${picture.tile-cache.directory:caches/tiles/}") String directory,
+                     @Value("${picture.tile-cache.memory-size:67108864}") long memorySize,
+                     MeterRegistry meterRegistry) {
+        this.fetcher = fetcher;
+        this.directory = Path.of(directory);
+        this.tiles = CacheBuilder.newBuilder() //
+            .maximumSize(Math.max(1, memorySize / TILE_BYTES)) //
+            .recordStats() //
+            .build(new CacheLoader<>() {
+                @Override
+                public BufferedImage load(String url) throws IOException {
+                    return MissionTileCache.this.load(url);
+                }
+            });
+        GuavaCacheMetrics.monitor(meterRegistry, tiles, "banner.picture.tiles");
+        Gauge.builder("banner.picture.tiles.memory", tiles, cache -> cache.size() * TILE_BYTES)
+            .description("Memory used by decoded mission tiles").baseUnit("bytes").register(meterRegistry);
+        diskHits = Counter.builder("banner.picture.tiles.disk").tag("result", "hit").register(meterRegistry);
+        diskMisses = Counter.builder("banner.picture.tiles.disk").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Gets the tile for a mission picture, loading it from disk or downloading and scaling it if necessary.
+     *
+     * @param url URL of the mission picture.
+     * @return Opaque tile with a size of {@link #TILE_SIZE} pixels.
+     */
+    BufferedImage get(String url) {
+        return tiles.getUnchecked(url);
+    }
+
+    /**
+     * Gets the tile for a mission picture. Tiles which are not in memory are loaded on a virtual thread of the
+     * {@link MissionPictureFetcher}.
+     *
+     * @param url URL of the mission picture.
+     * @return Tile with a size of {@link #TILE_SIZE} pixels.
+     */
+    CompletableFuture<BufferedImage> getAsync(String url) {
+        BufferedImage tile = tiles.getIfPresent(url);
+        return tile != null ? CompletableFuture.completedFuture(tile) : fetcher.submit(() -> get(url));
+    }
+
+    private BufferedImage load(String url) throws IOException {
+        // Tiles are stored flattened, files of former unflattened tiles are not used anymore
+        Path file = directory.resolve(Hashing.murmur3_128().hashString(url, StandardCharsets.UTF_8) + "-rgb.png");
+        if (Files.exists(file)) {
+            try {
+                BufferedImage tile = ImageIO.read(file.toFile());
+                if (tile != null) {
+                    diskHits.increment();
+                    return toIntRgb(tile);
+                }
+            } catch (IOException ex) {
+                logger.warn("Failed to read cached tile {}, downloading again", file, ex);
+            }
+        }
+        diskMisses.increment();
+        BufferedImage tile = scale(fetcher.fetch(url));
+        store(file, tile);
+        return tile;
+    }
+
+    /** Converts an opaque tile read from disk to the pixel layout of banner rasters. */
+    private static BufferedImage toIntRgb(BufferedImage tile) {
+        if (tile.getType() == BufferedImage.TYPE_INT_RGB) {
+            return tile;
+        }
+        BufferedImage result = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC));
+            graphics.drawImage(tile, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+
+    /**
+     * Scales a mission picture onto the banner background. Scaling and compositing happen in a single draw with
+     * bicubic interpolation, like the former renderer drew mission pictures onto the banner, as scaling into a
+     * transparent tile first rounds differently at semi-transparent edges.
+     */
+    private static BufferedImage scale(BufferedImage image) {
+        BufferedImage tile = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = tile.createGraphics();
+        try {
+            graphics.setPaint(BACKGROUND);
+            graphics.fillRect(0, 0, TILE_SIZE, TILE_SIZE);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER));
+            graphics.drawImage(image, 0, 0, TILE_SIZE, TILE_SIZE, 0, 0, image.getWidth(), image.getHeight(), null);
+        } finally {
+            graphics.dispose();
+        }
+        return tile;
+    }
+
+    /** Writes a tile to a temporary file first, so that concurrent readers never see partial files. */
+    private void store(Path file, BufferedImage tile) {
+        try {
+            Files.createDirectories(directory);
+            Path temporaryFile = Files.createTempFile(directory, "tile", ".tmp");
+            try {
+                ImageIO.write(tile, "png", temporaryFile.toFile());
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (IOException ex) {
+            logger.warn("Failed to store tile {}", file, ex);
+        }
+    }
+}
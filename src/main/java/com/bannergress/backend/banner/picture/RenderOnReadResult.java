@@ -0,0 +1,19 @@
+package com.bannergress.backend.banner.picture;
+
+/**
+ * Result of rendering a picture when it is read.
+ */
+public enum RenderOnReadResult {
+    /**
+     * The picture was rendered or did not need rendering.
+     */
+    rendered,
+    /**
+     * The picture is rendered eagerly, or rendering was deferred to the background.
+     */
+    deferred,
+    /**
+     * The picture does not exist.
+     */
+    notFound
+}
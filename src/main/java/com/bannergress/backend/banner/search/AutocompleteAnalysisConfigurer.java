@@ -0,0 +1,32 @@
+package com.bannergress.backend.banner.search;
+
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurationContext;
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurer;
+
+/**
+ * Defines the analyzers for search-as-you-type fields.
+ */
+public class AutocompleteAnalysisConfigurer implements LuceneAnalysisConfigurer {
+    /** Analyzer which indexes all prefixes of each word. */
+    public static final String ANALYZER_INDEXING = "autocomplete_indexing";
+
+    /** Analyzer for queries against fields that were indexed with {@link #ANALYZER_INDEXING}. */
+    public static final String ANALYZER_SEARCH = "autocomplete_search";
+
+    private static final String MAX_PREFIX_LENGTH = "20";
+
+    @Override
+    public void configure(LuceneAnalysisConfigurationContext context) {
+        context.analyzer(ANALYZER_INDEXING).custom() //
+            .tokenizer("standard") //
+            .tokenFilter("lowercase") //
+            .tokenFilter("asciiFolding") //
+            .tokenFilter("edgeNGram") //
+            .param("minGramSize", "1") //
+            .param("maxGramSize", MAX_PREFIX_LENGTH);
+        context.analyzer(ANALYZER_SEARCH).custom() //
+            .tokenizer("standard") //
+            .tokenFilter("lowercase") //
+            .tokenFilter("asciiFolding");
+    }
+}
@@ -0,0 +1,17 @@
+package com.bannergress.backend.banner.search;
+
+/**
+ * Cluster of banners whose start points are within the same geohash cell.
+ *
+ * @param geohash                Geohash of the cell.
+ * @param count                  Number of banners in the cell.
+ * @param centroidLatitude       Average latitude of the sampled start points, or the center of the cell if none were
+ *                               sampled.
+ * @param centroidLongitude      Average longitude of the sampled start points, or the center of the cell if none were
+ *                               sampled.
+ * @param representativeBannerId ID of the most recently created banner in the cell, or <code>null</code> if none were
+ *                               sampled.
+ */
+public record BannerCluster(String geohash, long count, double centroidLatitude, double centroidLongitude,
+                            String representativeBannerId) {
+}
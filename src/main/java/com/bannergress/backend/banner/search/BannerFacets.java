@@ -0,0 +1,31 @@
+package com.bannergress.backend.banner.search;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet counts for a banner search.
+ *
+ * @param total            Total number of matching banners.
+ * @param startPlaces      Number of banners per start place slug, for the places with the most banners.
+ * @param online           Number of banners per online status.
+ * @param official         Number of banners per official status.
+ * @param numberOfMissions Number of banners per range of number of missions.
+ * @param lengthMeters     Number of banners per range of length in meters.
+ * @param eventStart       Number of event banners per range of event start timestamps.
+ */
+public record BannerFacets(long total, Map<String, Long> startPlaces, Map<Boolean, Long> online,
+                           Map<Boolean, Long> official, List<Bucket<Integer>> numberOfMissions,
+                           List<Bucket<Integer>> lengthMeters, List<Bucket<Instant>> eventStart) {
+    /**
+     * Number of banners within a range of values.
+     *
+     * @param <T>   Value type.
+     * @param min   Minimum value (inclusive), or <code>null</code> if unbounded.
+     * @param max   Maximum value (exclusive), or <code>null</code> if unbounded.
+     * @param count Number of banners.
+     */
+    public record Bucket<T>(T min, T max, long count) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.bannergress.backend.banner.search;
+
+import com.bannergress.backend.banner.search.ReindexStatus.State;
+import org.hibernate.search.mapper.pojo.massindexing.MassIndexingMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the progress of a single background reindexing.
+ */
+class BannerReindexJob implements MassIndexingMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(BannerReindexJob.class);
+
+    /** Interval of indexed banners after which progress is logged. */
+    private static final long LOG_INTERVAL = 10_000;
+
+    private final Optional<String> placeSlug;
+
+    private final Optional<Instant> changedSince;
+
+    private final long total;
+
+    private final Instant started = Instant.now();
+
+    private final AtomicLong loaded = new AtomicLong();
+
+    private final AtomicLong indexed = new AtomicLong();
+
+    private volatile Instant finished;
+
+    private volatile String error;
+
+    BannerReindexJob(Optional<String> placeSlug, Optional<Instant> changedSince, long total) {
+        this.placeSlug = placeSlug;
+        this.changedSince = changedSince;
+        this.total = total;
+    }
+
+    @Override
+    public void documentsAdded(long increment) {
+        long previous = indexed.getAndAdd(increment);
+        if ((previous + increment) / LOG_INTERVAL != previous / LOG_INTERVAL) {
+            logger.info("Reindexed {} of {} banners", previous + increment, total);
+        }
+    }
+
+    @Override
+    public void documentsBuilt(long increment) {
+        // Tracked through documentsAdded
+    }
+
+    @Override
+    public void entitiesLoaded(long increment) {
+        loaded.addAndGet(increment);
+    }
+
+    // Deprecated by Hibernate Search in favor of type group monitors, so deliberately without @Override
+    public void addToTotalCount(long count) {
+        // The total is counted before reindexing starts
+    }
+
+    @Override
+    public void indexingCompleted() {
+        // Completion is tracked through the completion stage of the mass indexer
+    }
+
+    /** Marks the reindexing as successfully completed. */
+    void completed() {
+        finished = Instant.now();
+        logger.info("Reindexed {} banners in {}", indexed.get(), Duration.between(started, finished));
+    }
+
+    /**
+     * Marks the reindexing as failed.
+     *
+     * @param throwable Cause of the failure.
+     */
+    void failed(Throwable throwable) {
+        error = throwable.toString();
+        finished = Instant.now();
+        logger.error("Reindexing failed", throwable);
+    }
+
+    boolean isRunning() {
+        return finished == null;
+    }
+
+    ReindexStatus getStatus() {
+        Instant end = finished == null ? Instant.now() : finished;
+        long millis = Math.max(1, Duration.between(started, end).toMillis());
+        State state = finished == null ? State.running : error == null ? State.completed : State.failed;
+        return new ReindexStatus(state, placeSlug.orElse(null), changedSince.orElse(null), started, finished, total,
+            loaded.get(), indexed.get(), indexed.get() * 1000d / millis, error);
+    }
+}
@@ -0,0 +1,136 @@
+package com.bannergress.backend.banner.search;
+
+import com.bannergress.backend.banner.Banner;
+import com.google.common.base.Splitter;
+import org.springframework.data.domain.Sort.Direction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Opaque continuation cursor for keyset ("search after") paging of banner search results.
+ * <p>
+ * The cursor encodes the sort values of the last hit of a page, including the UUID tiebreaker, so that the next page
+ * can be found with a range predicate instead of skipping over all previous hits.
+ *
+ * @param orderBy        Sort order the cursor was created for, or <code>null</code> for the default order.
+ * @param orderDirection Sort direction the cursor was created for.
+ * @param value          Sort value of the last hit, or <code>null</code> if the hit has no value.
+ * @param uuid           UUID of the last hit.
+ */
+public record BannerSearchCursor(BannerSortOrder orderBy, Direction orderDirection, Object value, UUID uuid) {
+    /** Sort orders which can be used with cursors. */
+    private static final Set<BannerSortOrder> SUPPORTED_SORT_ORDERS = EnumSet.of(BannerSortOrder.created,
+        BannerSortOrder.title, BannerSortOrder.numberOfMissions, BannerSortOrder.lengthMeters);
+
+    private static final char SEPARATOR = '|';
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Checks whether a sort order can be used with cursors.
+     *
+     * @param orderBy Optional sort order.
+     * @return <code>true</code> if the sort order can be used with cursors.
+     */
+    public static boolean isSupported(Optional<BannerSortOrder> orderBy) {
+        return orderBy.map(SUPPORTED_SORT_ORDERS::contains).orElse(true);
+    }
+
+    /**
+     * Creates a cursor which continues after a banner.
+     *
+     * @param orderBy        Optional sort order.
+     * @param orderDirection Sort direction.
+     * @param banner         Last banner of the current page.
+     * @return Cursor, if the sort order can be used with cursors.
+     */
+    public static Optional<BannerSearchCursor> after(Optional<BannerSortOrder> orderBy, Direction orderDirection,
+                                                     Banner banner) {
+        if (!isSupported(orderBy)) {
+            return Optional.empty();
+        }
+        Object value = orderBy.map(o -> switch (o) {
+            case created -> banner.getCreated();
+            case title -> banner.getTitle();
+            case numberOfMissions -> banner.getNumberOfMissions();
+            case lengthMeters -> banner.getLengthMeters();
+            default -> throw new IllegalArgumentException(o.toString());
+        }).orElse(null);
+        return Optional.of(new BannerSearchCursor(orderBy.orElse(null), normalize(orderBy, orderDirection), value,
+            banner.getUuid()));
+    }
+
+    /**
+     * Checks whether the cursor can be used for a search with a given sort order.
+     *
+     * @param orderBy        Optional sort order of the search.
+     * @param orderDirection Sort direction of the search.
+     * @return <code>true</code> if the cursor matches the sort order.
+     */
+    public boolean matches(Optional<BannerSortOrder> orderBy, Direction orderDirection) {
+        return Objects.equals(this.orderBy, orderBy.orElse(null))
+            && this.orderDirection == normalize(orderBy, orderDirection);
+    }
+
+    /**
+     * Encodes the cursor into an opaque string.
+     *
+     * @return Encoded cursor.
+     */
+    public String encode() {
+        String plain = (orderBy == null ? "" : orderBy.name()) + SEPARATOR + orderDirection.name() + SEPARATOR + uuid
+            + SEPARATOR + (value == null ? "" : value.toString());
+        return ENCODER.encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor that was previously created by {@link #encode()}.
+     *
+     * @param encoded Encoded cursor.
+     * @return Cursor.
+     * @throws IllegalArgumentException If the cursor is malformed.
+     */
+    public static BannerSearchCursor decode(String encoded) {
+        String plain = new String(DECODER.decode(encoded), StandardCharsets.UTF_8);
+        List<String> parts = Splitter.on(SEPARATOR).limit(4).splitToList(plain);
+        if (parts.size() != 4) {
+            throw new IllegalArgumentException(encoded);
+        }
+        BannerSortOrder orderBy = parts.get(0).isEmpty() ? null : BannerSortOrder.valueOf(parts.get(0));
+        if (orderBy != null && !SUPPORTED_SORT_ORDERS.contains(orderBy)) {
+            throw new IllegalArgumentException(encoded);
+        }
+        Direction orderDirection = Direction.valueOf(parts.get(1));
+        UUID uuid = UUID.fromString(parts.get(2));
+        String rawValue = parts.get(3);
+        Object value = null;
+        if (orderBy != null && !rawValue.isEmpty()) {
+            try {
+                value = switch (orderBy) {
+                    case created -> Instant.parse(rawValue);
+                    case title -> rawValue;
+                    case numberOfMissions, lengthMeters -> Integer.valueOf(rawValue);
+                    default -> throw new IllegalArgumentException(encoded);
+                };
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException(encoded, ex);
+            }
+        }
+        return new BannerSearchCursor(orderBy, orderDirection, value, uuid);
+    }
+
+    /** Without explicit sort order, only the ascending UUID tiebreaker is used, so the direction is irrelevant. */
+    private static Direction normalize(Optional<BannerSortOrder> orderBy, Direction orderDirection) {
+        return orderBy.isPresent() ? orderDirection : Direction.ASC;
+    }
+}
@@ -2,6 +2,7 @@ package com.bannergress.backend.banner.search;
 
 import com.bannergress.backend.banner.Banner;
 import com.bannergress.backend.banner.BannerListType;
+import com.bannergress.backend.place.Place;
 import org.springframework.data.domain.Sort.Direction;
 
 import java.time.Instant;
@@ -33,6 +34,9 @@ public interface BannerSearchService {
      * @param orderDirection       Sort direction.
      * @param proximityLatitude    Optional reference latitude for proximity sorting.
      * @param proximityLongitude   Optional reference longitude for proximity sorting.
+     * @param minEventTimestamp    Optional minimum event end timestamp.
+     * @param maxEventTimestamp    Optional maximum event start timestamp.
+     * @param after                Optional cursor; if present, only results after the cursor are returned.
      * @param offset               Offset of the first result.
      * @param limit                Maximum number of results.
      * @return Banners that were found.
@@ -43,8 +47,106 @@ public interface BannerSearchService {
                       Optional<String> author, Optional<Collection<BannerListType>> listTypes, Optional<String> userId,
                       Optional<Boolean> online, Optional<BannerSortOrder> orderBy, Direction orderDirection,
                       Optional<Double> proximityLatitude, Optional<Double> proximityLongitude,
-                      Optional<Instant> minEventTimestamp, Optional<Instant> maxEventTimestamp, int offset, int limit);
+                      Optional<Instant> minEventTimestamp, Optional<Instant> maxEventTimestamp,
+                      Optional<BannerSearchCursor> after, int offset, int limit);
 
-    /** Updates the search index. */
-    void updateIndex();
+    /**
+     * Finds banners like {@link #find}, but creates the results out of the search index only, without loading
+     * entities from the database.
+     * <p>
+     * The returned banners are detached and only contain the attributes needed for banner lists: UUID, canonical
+     * slug, title, number of (submitted/disabled) missions, width, length, start point, creation timestamp, picture
+     * hash and the most accurate start place with its formatted addresses.
+     *
+     * @return Banner summaries that were found.
+     * @see #find
+     */
+    List<Banner> findSummaries(Optional<String> placeSlug, Optional<Double> minLatitude, Optional<Double> maxLatitude,
+                               Optional<Double> minLongitude, Optional<Double> maxLongitude, Optional<String> query,
+                               boolean queryAuthor, Optional<String> missionId, boolean onlyOfficialMissions,
+                               Optional<String> author, Optional<Collection<BannerListType>> listTypes,
+                               Optional<String> userId, Optional<Boolean> online, Optional<BannerSortOrder> orderBy,
+                               Direction orderDirection, Optional<Double> proximityLatitude,
+                               Optional<Double> proximityLongitude, Optional<Instant> minEventTimestamp,
+                               Optional<Instant> maxEventTimestamp, Optional<BannerSearchCursor> after, int offset,
+                               int limit);
+
+    /**
+     * Counts banners per facet in a single index query, without loading any banners. The filter parameters are the
+     * same as for {@link #find}.
+     *
+     * @param maxStartPlaces Maximum number of start places to count banners for, at least 1.
+     * @return Facet counts.
+     */
+    BannerFacets findFacets(Optional<String> placeSlug, Optional<Double> minLatitude, Optional<Double> maxLatitude,
+                            Optional<Double> minLongitude, Optional<Double> maxLongitude, Optional<String> query,
+                            boolean queryAuthor, Optional<String> missionId, boolean onlyOfficialMissions,
+                            Optional<String> author, Optional<Collection<BannerListType>> listTypes,
+                            Optional<String> userId, Optional<Boolean> online, Optional<Instant> minEventTimestamp,
+                            Optional<Instant> maxEventTimestamp, int maxStartPlaces);
+
+    /**
+     * Groups banners into clusters by the geohash cell of their start point, without loading any banners. The filter
+     * parameters are the same as for {@link #find}. Banners without start point are ignored. Counts include all
+     * banners, while centroids and representative banners are determined from a sample of the most recently created
+     * banners. Only the clusters with the most banners are returned.
+     *
+     * @param precision Geohash precision (number of characters) of the clusters.
+     * @return Clusters, ordered by descending number of banners.
+     */
+    List<BannerCluster> findClusters(Optional<String> placeSlug, Optional<Double> minLatitude,
+                                     Optional<Double> maxLatitude, Optional<Double> minLongitude,
+                                     Optional<Double> maxLongitude, Optional<String> query, boolean queryAuthor,
+                                     Optional<String> missionId, boolean onlyOfficialMissions,
+                                     Optional<String> author, Optional<Collection<BannerListType>> listTypes,
+                                     Optional<String> userId, Optional<Boolean> online,
+                                     Optional<Instant> minEventTimestamp, Optional<Instant> maxEventTimestamp,
+                                     int precision);
+
+    /**
+     * Reindexes all banners whose indexed official flag does not match the currently configured official mission
+     * authors, or which were indexed before the flag existed.
+     *
+     * @return Number of reindexed banners.
+     */
+    int updateOfficialFlags();
+
+    /**
+     * Suggests banners whose title words start with the words of a query, for search-as-you-type. The results are
+     * created out of the search index only and just contain canonical slug and title.
+     *
+     * @param query Query as typed so far.
+     * @param limit Maximum number of results.
+     * @return Suggested banners, most relevant first.
+     */
+    List<Banner> suggestBanners(String query, int limit);
+
+    /**
+     * Suggests used places whose name words start with the words of a query, for search-as-you-type. The results
+     * are created out of the search index only and just contain slug and translated names.
+     *
+     * @param query Query as typed so far.
+     * @param limit Maximum number of results.
+     * @return Suggested places, most relevant first.
+     */
+    List<Place> suggestPlaces(String query, int limit);
+
+    /**
+     * Starts reindexing banners in the background. Existing index documents are updated in place, so searches keep
+     * working while reindexing is in progress. A full reindexing also reindexes places and settings, and afterwards
+     * removes documents of entities which no longer exist.
+     *
+     * @param placeSlug    Optional place slug; if present, only banners starting in the place are reindexed.
+     * @param changedSince Optional timestamp; if present, only banners which were created or whose missions were
+     *                     updated since then are reindexed.
+     * @return <code>true</code> if reindexing was started, <code>false</code> if reindexing is already in progress.
+     */
+    boolean startReindex(Optional<String> placeSlug, Optional<Instant> changedSince);
+
+    /**
+     * Gets the status of the current or most recent reindexing.
+     *
+     * @return Reindex status.
+     */
+    ReindexStatus getReindexStatus();
 }
@@ -0,0 +1,38 @@
+package com.bannergress.backend.banner.search;
+
+import org.hibernate.search.engine.backend.document.DocumentElement;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.mapper.pojo.bridge.TypeBridge;
+import org.hibernate.search.mapper.pojo.bridge.binding.TypeBindingContext;
+import org.hibernate.search.mapper.pojo.bridge.mapping.programmatic.TypeBinder;
+import org.hibernate.search.mapper.pojo.bridge.runtime.TypeBridgeWriteContext;
+
+/**
+ * Binder which stores when a document was written, so that documents which a full reindexing did not write can be
+ * recognized as belonging to deleted entities.
+ */
+public class IndexedAtBinder implements TypeBinder {
+    /** Field containing the time the document was written, in milliseconds since the epoch. */
+    static final String FIELD_INDEXED_AT = "indexedAt";
+
+    @Override
+    public void bind(TypeBindingContext context) {
+        context.dependencies().useRootOnly();
+        IndexFieldReference<Long> indexedAtField = context.indexSchemaElement()
+            .field(FIELD_INDEXED_AT, f -> f.asLong()).toReference();
+        context.bridge(new Bridge(indexedAtField));
+    }
+
+    private static class Bridge implements TypeBridge<Object> {
+        private final IndexFieldReference<Long> indexedAtField;
+
+        private Bridge(IndexFieldReference<Long> indexedAtField) {
+            this.indexedAtField = indexedAtField;
+        }
+
+        @Override
+        public void write(DocumentElement target, Object bridgedElement, TypeBridgeWriteContext context) {
+            target.addValue(indexedAtField, System.currentTimeMillis());
+        }
+    }
+}
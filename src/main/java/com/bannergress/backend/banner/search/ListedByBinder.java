@@ -0,0 +1,91 @@
+package com.bannergress.backend.banner.search;
+
+import com.bannergress.backend.banner.BannerListType;
+import com.bannergress.backend.banner.settings.BannerSettings;
+import org.hibernate.search.engine.backend.document.DocumentElement;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.engine.backend.types.Searchable;
+import org.hibernate.search.engine.backend.types.Sortable;
+import org.hibernate.search.mapper.pojo.bridge.PropertyBridge;
+import org.hibernate.search.mapper.pojo.bridge.binding.PropertyBindingContext;
+import org.hibernate.search.mapper.pojo.bridge.mapping.programmatic.PropertyBinder;
+import org.hibernate.search.mapper.pojo.bridge.runtime.PropertyBridgeWriteContext;
+
+import java.util.List;
+
+/**
+ * Binder which stores the list memberships of a banner in the banner document, so that list types can be filtered and
+ * sorted by the time banners were added within a single search, without nested documents.
+ * <p>
+ * Memberships are stored as <code>userId:listType</code> values of a keyword field. The time a banner was added to a
+ * list is stored in one sortable field per user, created from a field template.
+ */
+public class ListedByBinder implements PropertyBinder {
+    /** Field containing the list memberships, see {@link #listedBy(String, BannerListType)}. */
+    static final String FIELD_LISTED_BY = "listedBy";
+
+    private static final String LIST_ADDED_PREFIX = "listAdded_";
+
+    /**
+     * Returns the value of {@link #FIELD_LISTED_BY} for a banner on a list of a user.
+     *
+     * @param userId   User ID.
+     * @param listType List type, other than {@link BannerListType#none}.
+     * @return Value.
+     */
+    static String listedBy(String userId, BannerListType listType) {
+        return userId + ":" + listType;
+    }
+
+    /**
+     * Returns the field containing the time a banner was added to a list of a user, in milliseconds since the epoch.
+     *
+     * @param userId User ID.
+     * @return Field name.
+     */
+    static String listAddedField(String userId) {
+        return LIST_ADDED_PREFIX + userId;
+    }
+
+    @Override
+    public void bind(PropertyBindingContext context) {
+        // The user of settings never changes, so only the list type and timestamp are dependencies
+        context.dependencies() //
+            .use("listType") //
+            .use("listAdded");
+        IndexSchemaElement schemaElement = context.indexSchemaElement();
+        IndexFieldReference<String> listedByField = schemaElement
+            .field(FIELD_LISTED_BY, f -> f.asString().searchable(Searchable.YES)).multiValued().toReference();
+        schemaElement.fieldTemplate("listAdded", f -> f.asLong().searchable(Searchable.NO).sortable(Sortable.YES))
+            .matchingPathGlob(LIST_ADDED_PREFIX + "*");
+        context.bridge(List.class, new Bridge(listedByField));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static class Bridge implements PropertyBridge<List> {
+        private final IndexFieldReference<String> listedByField;
+
+        private Bridge(IndexFieldReference<String> listedByField) {
+            this.listedByField = listedByField;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void write(DocumentElement target, List bridgedElement, PropertyBridgeWriteContext context) {
+            if (bridgedElement == null) {
+                return;
+            }
+            for (BannerSettings settings : (List<BannerSettings>) bridgedElement) {
+                if (settings.getListType() == BannerListType.none) {
+                    continue;
+                }
+                String userId = settings.getUser().getId();
+                target.addValue(listedByField, listedBy(userId, settings.getListType()));
+                if (settings.getListAdded() != null) {
+                    target.addValue(listAddedField(userId), settings.getListAdded().toEpochMilli());
+                }
+            }
+        }
+    }
+}
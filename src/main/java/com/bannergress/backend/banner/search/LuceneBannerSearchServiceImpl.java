@@ -2,25 +2,56 @@ package com.bannergress.backend.banner.search;
 
 import com.bannergress.backend.banner.Banner;
 import com.bannergress.backend.banner.BannerListType;
+import com.bannergress.backend.banner.picture.BannerPicture;
+import com.bannergress.backend.place.Place;
+import com.bannergress.backend.spatial.Geohash;
+import com.bannergress.backend.spatial.Spatial;
+import com.google.common.collect.Lists;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.search.engine.search.aggregation.AggregationKey;
 import org.hibernate.search.engine.search.common.BooleanOperator;
+import org.hibernate.search.engine.search.common.ValueModel;
 import org.hibernate.search.engine.search.predicate.dsl.PredicateFinalStep;
 import org.hibernate.search.engine.search.predicate.dsl.SearchPredicateFactory;
 import org.hibernate.search.engine.search.predicate.dsl.SimpleBooleanPredicateClausesStep;
 import org.hibernate.search.engine.search.predicate.dsl.SimpleQueryStringPredicateFieldMoreStep;
+import org.hibernate.search.engine.search.query.SearchResult;
+import org.hibernate.search.engine.search.sort.dsl.SearchSortFactory;
+import org.hibernate.search.engine.search.sort.dsl.SortFinalStep;
 import org.hibernate.search.engine.search.sort.dsl.SortOrder;
+import org.hibernate.search.engine.spatial.GeoPoint;
 import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.search.mapper.orm.mapping.SearchMapping;
+import org.hibernate.search.mapper.orm.massindexing.MassIndexer;
+import org.hibernate.search.mapper.orm.massindexing.MassIndexerReindexParameterStep;
+import org.hibernate.search.mapper.orm.scope.SearchScope;
 import org.hibernate.search.mapper.orm.session.SearchSession;
+import org.hibernate.search.mapper.orm.work.SearchIndexingPlan;
+import org.hibernate.search.util.common.data.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Lucene-based implementation of {@link BannerSearchService}.
@@ -29,12 +60,18 @@ import java.util.Optional;
 @Transactional
 class LuceneBannerSearchServiceImpl extends BaseBannerSearchServiceImpl {
     private static final String FIELD_UUID = "uuid";
+    private static final String FIELD_CANONICAL_SLUG = "canonicalSlug";
     private static final String FIELD_TITLE = "title";
     private static final String FIELD_TITLE_SORT = "titleSort";
+    private static final String FIELD_TITLE_AUTOCOMPLETE = "titleAutocomplete";
     private static final String FIELD_DESCRIPTION = "description";
     private static final String FIELD_CREATED = "created";
     private static final String FIELD_LENGTH_METERS = "lengthMeters";
     private static final String FIELD_NUMBER_OF_MISSIONS = "numberOfMissions";
+    private static final String FIELD_NUMBER_OF_SUBMITTED_MISSIONS = "numberOfSubmittedMissions";
+    private static final String FIELD_NUMBER_OF_DISABLED_MISSIONS = "numberOfDisabledMissions";
+    private static final String FIELD_WIDTH = "width";
+    private static final String FIELD_PICTURE_HASH = "picture.hash";
     private static final String FIELD_ONLINE = "online";
     private static final String FIELD_START_POINT = "startPoint";
     private static final String FIELD_START_PLACES_SLUG = "startPlaces.slug";
@@ -43,16 +80,51 @@ class LuceneBannerSearchServiceImpl extends BaseBannerSearchServiceImpl {
     private static final String FIELD_MISSIONS_AUTHOR_NAME = "missions.author.name";
     private static final String FIELD_MISSIONS_TITLE = "missions.title";
     private static final String FIELD_MISSIONS_ID = "missions.id";
-    private static final String FIELD_SETTINGS = "settings";
-    private static final String FIELD_SETTINGS_USER_ID = "settings.user.id";
-    private static final String FIELD_SETTINGS_LIST_TYPE = "settings.listType";
-    private static final String FIELD_SETTINGS_LIST_ADDED = "settings.listAdded";
     private static final String FIELD_EVENT_START_TIMESTAMP = "eventStartTimestamp";
     private static final String FIELD_EVENT_END_TIMESTAMP = "eventEndTimestamp";
+    private static final String FIELD_PLACE_SLUG = "slug";
+    private static final String FIELD_PLACE_NUMBER_OF_BANNERS = "numberOfBanners";
+    private static final String FIELD_PLACE_INFORMATION_LONG_NAME_AUTOCOMPLETE = "information.longNameAutocomplete";
+
+    private static final Logger logger = LoggerFactory.getLogger(LuceneBannerSearchServiceImpl.class);
+
+    /** Number of banners to reindex at once when updating official flags. */
+    private static final int OFFICIAL_FLAG_BATCH_SIZE = 1_000;
+
+    /** Number of stale documents to remove from the index per transaction. */
+    private static final int PURGE_BATCH_SIZE = 1_000;
+
+    /** Maximum number of clusters, the clusters with the most banners are returned. */
+    private static final int MAX_CLUSTERS = 1_000;
+
+    /** Number of most recently created banners from which centroids and representative banners are determined. */
+    private static final int CLUSTER_SAMPLE_SIZE = 10_000;
+
+    /** Ranges for number of missions facet counts. */
+    private static final List<Range<Integer>> NUMBER_OF_MISSIONS_RANGES = createRanges(6, 12, 18, 24, 36, 48, 72, 96);
+
+    /** Ranges for length facet counts. */
+    private static final List<Range<Integer>> LENGTH_METERS_RANGES = createRanges(1_000, 2_000, 5_000, 10_000,
+        20_000, 50_000);
 
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private Spatial spatial;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReindexConfiguration reindexConfiguration;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Current or most recent reindexing. */
+    private final AtomicReference<BannerReindexJob> reindexJob = new AtomicReference<>();
+
     @Override
     public List<Banner> find(Optional<String> placeSlug, Optional<Double> minLatitude, Optional<Double> maxLatitude,
                              Optional<Double> minLongitude, Optional<Double> maxLongitude, Optional<String> search,
@@ -61,56 +133,320 @@ class LuceneBannerSearchServiceImpl extends BaseBannerSearchServiceImpl {
                              Optional<String> userId, Optional<Boolean> online, Optional<BannerSortOrder> orderBy,
                              Direction orderDirection, Optional<Double> proximityLatitude,
                              Optional<Double> proximityLongitude, Optional<Instant> minEventTimestamp,
-                             Optional<Instant> maxEventTimestamp, int offset, int limit) {
+                             Optional<Instant> maxEventTimestamp, Optional<BannerSearchCursor> after, int offset,
+                             int limit) {
+        Function<SearchPredicateFactory, PredicateFinalStep> filter = factory -> createPredicate(factory, placeSlug,
+            minLatitude, maxLatitude, minLongitude, maxLongitude, search, queryAuthor, missionId,
+            onlyOfficialMissions, author, listTypes, userId, online, minEventTimestamp, maxEventTimestamp, after);
         SearchSession searchSession = Search.session(entityManager);
-        List<Banner> result = searchSession.search(Banner.class).where((factory, predicate) -> {
-            predicate.add(factory.matchAll());
-            if (placeSlug.isPresent()) {
-                predicate.add(factory.match().field(FIELD_START_PLACES_SLUG).matching(placeSlug.get()));
-            }
-            if (minLatitude.isPresent()) {
-                predicate.add(factory.spatial().within().field(FIELD_START_POINT).boundingBox(maxLatitude.get(),
-                    minLongitude.get(), minLatitude.get(), maxLongitude.get()));
-            }
-            if (search.isPresent()) {
-                SimpleQueryStringPredicateFieldMoreStep<?, ?, ?> step = factory.simpleQueryString() //
-                    .field(FIELD_TITLE).boost(5) //
-                    .field(FIELD_DESCRIPTION).boost(0.1f) //
-                    .field(FIELD_MISSIONS_ID) //
-                    .field(FIELD_MISSIONS_TITLE) //
-                    .field(FIELD_START_PLACES_INFORMATION_LONG_NAME) //
-                    .field(FIELD_START_PLACES_INFORMATION_FORMATTED_ADDRESS);
-                if (queryAuthor) {
-                    step = step.field(FIELD_MISSIONS_AUTHOR_NAME);
-                }
-                predicate.add(step.matching(search.get()).defaultOperator(BooleanOperator.AND));
-            }
-            if (missionId.isPresent()) {
-                predicate.add(factory.match().field(FIELD_MISSIONS_ID).matching(missionId.get()));
-            }
-            if (onlyOfficialMissions) {
-                SimpleBooleanPredicateClausesStep<?, ?> orPredicate = factory.or();
-                for (String officialMissionAuthor : nianticConfiguration.officialMissionAuthors()) {
-                    orPredicate.add(factory.match().field(FIELD_MISSIONS_AUTHOR_NAME).matching(officialMissionAuthor));
+        List<Banner> result = searchSession.search(Banner.class) //
+            .where(factory -> filter.apply(factory)) //
+            .sort(factory -> createSort(factory, orderBy, orderDirection, proximityLatitude, proximityLongitude,
+                userId)) //
+            .fetchHits(offset, limit);
+        preloadPlaceInformation(result);
+        return result;
+    }
+
+    @Override
+    public List<Banner> findSummaries(Optional<String> placeSlug, Optional<Double> minLatitude,
+                                      Optional<Double> maxLatitude, Optional<Double> minLongitude,
+                                      Optional<Double> maxLongitude, Optional<String> search, boolean queryAuthor,
+                                      Optional<String> missionId, boolean onlyOfficialMissions,
+                                      Optional<String> author, Optional<Collection<BannerListType>> listTypes,
+                                      Optional<String> userId, Optional<Boolean> online,
+                                      Optional<BannerSortOrder> orderBy, Direction orderDirection,
+                                      Optional<Double> proximityLatitude, Optional<Double> proximityLongitude,
+                                      Optional<Instant> minEventTimestamp, Optional<Instant> maxEventTimestamp,
+                                      Optional<BannerSearchCursor> after, int offset, int limit) {
+        Function<SearchPredicateFactory, PredicateFinalStep> filter = factory -> createPredicate(factory, placeSlug,
+            minLatitude, maxLatitude, minLongitude, maxLongitude, search, queryAuthor, missionId,
+            onlyOfficialMissions, author, listTypes, userId, online, minEventTimestamp, maxEventTimestamp, after);
+        SearchSession searchSession = Search.session(entityManager);
+        return searchSession.search(Banner.class) //
+            .select(f -> f.composite().from( //
+                f.field(FIELD_UUID, UUID.class), //
+                f.field(FIELD_CANONICAL_SLUG, String.class), //
+                f.field(FIELD_TITLE_SORT, String.class), //
+                f.field(FIELD_NUMBER_OF_MISSIONS, Integer.class), //
+                f.field(FIELD_NUMBER_OF_SUBMITTED_MISSIONS, Integer.class), //
+                f.field(FIELD_NUMBER_OF_DISABLED_MISSIONS, Integer.class), //
+                f.field(FIELD_WIDTH, Integer.class), //
+                f.field(FIELD_LENGTH_METERS, Integer.class), //
+                f.field(FIELD_START_POINT, GeoPoint.class, ValueModel.INDEX), //
+                f.field(FIELD_CREATED, Instant.class), //
+                f.field(FIELD_PICTURE_HASH, String.class), //
+                f.field(StartPlaceBinder.FIELD_SLUG, String.class), //
+                f.field(StartPlaceBinder.FIELD_INFORMATION, String.class).multi() //
+            ).asList()) //
+            .where(factory -> filter.apply(factory)) //
+            .sort(factory -> createSort(factory, orderBy, orderDirection, proximityLatitude, proximityLongitude,
+                userId)) //
+            .fetchHits(offset, limit).stream() //
+            .map(this::toSummary) //
+            .toList();
+    }
+
+    @Override
+    public BannerFacets findFacets(Optional<String> placeSlug, Optional<Double> minLatitude,
+                                   Optional<Double> maxLatitude, Optional<Double> minLongitude,
+                                   Optional<Double> maxLongitude, Optional<String> search, boolean queryAuthor,
+                                   Optional<String> missionId, boolean onlyOfficialMissions, Optional<String> author,
+                                   Optional<Collection<BannerListType>> listTypes, Optional<String> userId,
+                                   Optional<Boolean> online, Optional<Instant> minEventTimestamp,
+                                   Optional<Instant> maxEventTimestamp, int maxStartPlaces) {
+        AggregationKey<Map<String, Long>> startPlacesKey = AggregationKey.of(FIELD_START_PLACES_SLUG);
+        AggregationKey<Map<Boolean, Long>> onlineKey = AggregationKey.of(FIELD_ONLINE);
+        AggregationKey<Map<Boolean, Long>> officialKey = AggregationKey.of(OfficialBannerBinder.FIELD_OFFICIAL);
+        AggregationKey<Map<Range<Integer>, Long>> numberOfMissionsKey = AggregationKey.of(FIELD_NUMBER_OF_MISSIONS);
+        AggregationKey<Map<Range<Integer>, Long>> lengthMetersKey = AggregationKey.of(FIELD_LENGTH_METERS);
+        AggregationKey<Map<Range<Instant>, Long>> eventStartKey = AggregationKey.of(FIELD_EVENT_START_TIMESTAMP);
+        Instant now = Instant.now();
+        List<Range<Instant>> eventStartRanges = createRanges(now, now.plus(7, ChronoUnit.DAYS),
+            now.plus(30, ChronoUnit.DAYS));
+        SearchSession searchSession = Search.session(entityManager);
+        SearchResult<Banner> result = searchSession.search(Banner.class) //
+            .where(factory -> createPredicate(factory, placeSlug, minLatitude, maxLatitude, minLongitude,
+                maxLongitude, search, queryAuthor, missionId, onlyOfficialMissions, author, listTypes, userId, online,
+                minEventTimestamp, maxEventTimestamp, Optional.empty())) //
+            .aggregation(startPlacesKey,
+                f -> f.terms().field(FIELD_START_PLACES_SLUG, String.class).maxTermCount(maxStartPlaces)) //
+            .aggregation(onlineKey, f -> f.terms().field(FIELD_ONLINE, Boolean.class)) //
+            .aggregation(officialKey, f -> f.terms().field(OfficialBannerBinder.FIELD_OFFICIAL, Boolean.class)) //
+            .aggregation(numberOfMissionsKey,
+                f -> f.range().field(FIELD_NUMBER_OF_MISSIONS, Integer.class).ranges(NUMBER_OF_MISSIONS_RANGES)) //
+            .aggregation(lengthMetersKey,
+                f -> f.range().field(FIELD_LENGTH_METERS, Integer.class).ranges(LENGTH_METERS_RANGES)) //
+            .aggregation(eventStartKey,
+                f -> f.range().field(FIELD_EVENT_START_TIMESTAMP, Instant.class).ranges(eventStartRanges)) //
+            .fetch(0);
+        return new BannerFacets(result.total().hitCount(), result.aggregation(startPlacesKey),
+            result.aggregation(onlineKey), result.aggregation(officialKey), toBuckets(result.aggregation(numberOfMissionsKey)),
+            toBuckets(result.aggregation(lengthMetersKey)), toBuckets(result.aggregation(eventStartKey)));
+    }
+
+    @Override
+    public List<BannerCluster> findClusters(Optional<String> placeSlug, Optional<Double> minLatitude,
+                                            Optional<Double> maxLatitude, Optional<Double> minLongitude,
+                                            Optional<Double> maxLongitude, Optional<String> search,
+                                            boolean queryAuthor, Optional<String> missionId,
+                                            boolean onlyOfficialMissions, Optional<String> author,
+                                            Optional<Collection<BannerListType>> listTypes, Optional<String> userId,
+                                            Optional<Boolean> online, Optional<Instant> minEventTimestamp,
+                                            Optional<Instant> maxEventTimestamp, int precision) {
+        SearchSession searchSession = Search.session(entityManager);
+        String geohashField = StartGeohashBinder.field(precision);
+        AggregationKey<Map<String, Long>> countsKey = AggregationKey.of(geohashField);
+        // Counts come from the index, only the most recent banners are loaded for centroids and representatives
+        SearchResult<List<?>> result = searchSession.search(Banner.class) //
+            .select(f -> f.composite().from( //
+                f.field(FIELD_CANONICAL_SLUG, String.class), //
+                f.field(FIELD_START_POINT, GeoPoint.class, ValueModel.INDEX) //
+            ).asList()) //
+            .where(factory -> factory.and( //
+                createPredicate(factory, placeSlug, minLatitude, maxLatitude, minLongitude, maxLongitude, search,
+                    queryAuthor, missionId, onlyOfficialMissions, author, listTypes, userId, online,
+                    minEventTimestamp, maxEventTimestamp, Optional.empty()), //
+                factory.exists().field(FIELD_START_POINT))) //
+            .sort(factory -> factory.field(FIELD_CREATED).desc()) //
+            .aggregation(countsKey, f -> f.terms().field(geohashField, String.class).maxTermCount(MAX_CLUSTERS)) //
+            .fetch(CLUSTER_SAMPLE_SIZE);
+        Map<String, ClusterAccumulator> samples = new HashMap<>();
+        for (List<?> hit : result.hits()) {
+            String canonicalSlug = (String) hit.get(0);
+            GeoPoint startPoint = (GeoPoint) hit.get(1);
+            samples.computeIfAbsent(Geohash.encode(startPoint.latitude(), startPoint.longitude(), precision),
+                geohash -> new ClusterAccumulator(canonicalSlug)).add(startPoint);
+        }
+        return result.aggregation(countsKey).entrySet().stream() //
+            .map(entry -> {
+                ClusterAccumulator sample = samples.get(entry.getKey());
+                if (sample == null) {
+                    // Only contains banners older than the sample
+                    GeoPoint center = Geohash.center(entry.getKey());
+                    return new BannerCluster(entry.getKey(), entry.getValue(), center.latitude(), center.longitude(),
+                        null);
                 }
-                predicate.add(orPredicate);
-            }
-            if (author.isPresent()) {
-                predicate.add(factory.match().field(FIELD_MISSIONS_AUTHOR_NAME).matching(author.get()));
-            }
-            if (listTypes.isPresent()) {
-                predicate.add(createListTypePredicate(factory, listTypes.get(), userId.get()));
-            }
-            if (online.isPresent()) {
-                predicate.add(factory.match().field(FIELD_ONLINE).matching(online.get()));
-            }
-            if (minEventTimestamp.isPresent()) {
-                predicate.add(factory.range().field(FIELD_EVENT_END_TIMESTAMP).greaterThan(minEventTimestamp.get()));
-            }
-            if (maxEventTimestamp.isPresent()) {
-                predicate.add(factory.range().field(FIELD_EVENT_START_TIMESTAMP).atMost(maxEventTimestamp.get()));
+                return sample.toCluster(entry.getKey(), entry.getValue());
+            }) //
+            .toList();
+    }
+
+    /** Accumulates the sampled banners of a single cluster. */
+    private static class ClusterAccumulator {
+        /** First banner of the cluster in sort order. */
+        private final String representativeBannerId;
+
+        private long count;
+
+        private double latitudeSum;
+
+        private double longitudeSum;
+
+        private ClusterAccumulator(String representativeBannerId) {
+            this.representativeBannerId = representativeBannerId;
+        }
+
+        private void add(GeoPoint point) {
+            count++;
+            latitudeSum += point.latitude();
+            longitudeSum += point.longitude();
+        }
+
+        private BannerCluster toCluster(String geohash, long totalCount) {
+            // Geohash cells never cross the antimeridian, so the arithmetic mean is a valid centroid
+            return new BannerCluster(geohash, totalCount, latitudeSum / count, longitudeSum / count,
+                representativeBannerId);
+        }
+    }
+
+    /**
+     * Creates adjacent ranges which are separated by the specified bounds, starting and ending unbounded.
+     *
+     * @param <T>    Value type.
+     * @param bounds Bounds in ascending order.
+     * @return Ranges.
+     */
+    @SafeVarargs
+    private static <T> List<Range<T>> createRanges(T... bounds) {
+        List<Range<T>> ranges = new ArrayList<>();
+        T lower = null;
+        for (T upper : bounds) {
+            ranges.add(Range.canonical(lower, upper));
+            lower = upper;
+        }
+        ranges.add(Range.canonical(lower, null));
+        return ranges;
+    }
+
+    private static <T> List<BannerFacets.Bucket<T>> toBuckets(Map<Range<T>, Long> counts) {
+        return counts.entrySet().stream() //
+            .map(entry -> new BannerFacets.Bucket<>(entry.getKey().lowerBoundValue().orElse(null),
+                entry.getKey().upperBoundValue().orElse(null), entry.getValue())) //
+            .toList();
+    }
+
+    /**
+     * Creates a detached banner out of projected index fields.
+     *
+     * @param fields Projected fields, in the order of the projection in {@link #findSummaries}.
+     * @return Banner summary.
+     */
+    @SuppressWarnings("unchecked")
+    private Banner toSummary(List<?> fields) {
+        Banner banner = new Banner();
+        banner.setUuid((UUID) fields.get(0));
+        banner.setCanonicalSlug((String) fields.get(1));
+        banner.setTitle((String) fields.get(2));
+        banner.setNumberOfMissions((Integer) fields.get(3));
+        banner.setNumberOfSubmittedMissions((Integer) fields.get(4));
+        banner.setNumberOfDisabledMissions((Integer) fields.get(5));
+        banner.setWidth((Integer) fields.get(6));
+        banner.setLengthMeters((Integer) fields.get(7));
+        GeoPoint startPoint = (GeoPoint) fields.get(8);
+        if (startPoint != null) {
+            banner.setStartPoint(spatial.createPoint(startPoint.latitude(), startPoint.longitude()));
+        }
+        banner.setCreated((Instant) fields.get(9));
+        String pictureHash = (String) fields.get(10);
+        if (pictureHash != null) {
+            BannerPicture picture = new BannerPicture();
+            picture.setHash(pictureHash);
+            banner.setPicture(picture);
+        }
+        String startPlaceSlug = (String) fields.get(11);
+        if (startPlaceSlug != null) {
+            Place place = new Place();
+            place.setSlug(startPlaceSlug);
+            place.setInformation(((List<String>) fields.get(12)).stream()
+                .map(information -> PlaceInformationEncoding.decode(information, place))
+                .collect(Collectors.toList()));
+            banner.getStartPlaces().add(place);
+        }
+        return banner;
+    }
+
+    /**
+     * Creates the filter predicate for a search. The parameters are the filter parameters of
+     * {@link BannerSearchService#find}.
+     *
+     * @return Predicate.
+     */
+    private PredicateFinalStep createPredicate(SearchPredicateFactory factory, Optional<String> placeSlug,
+                                               Optional<Double> minLatitude, Optional<Double> maxLatitude,
+                                               Optional<Double> minLongitude, Optional<Double> maxLongitude,
+                                               Optional<String> search, boolean queryAuthor,
+                                               Optional<String> missionId, boolean onlyOfficialMissions,
+                                               Optional<String> author,
+                                               Optional<Collection<BannerListType>> listTypes,
+                                               Optional<String> userId, Optional<Boolean> online,
+                                               Optional<Instant> minEventTimestamp,
+                                               Optional<Instant> maxEventTimestamp,
+                                               Optional<BannerSearchCursor> after) {
+        SimpleBooleanPredicateClausesStep<?, ?> predicate = factory.and();
+        predicate.add(factory.matchAll());
+        if (placeSlug.isPresent()) {
+            predicate.add(factory.match().field(FIELD_START_PLACES_SLUG).matching(placeSlug.get()));
+        }
+        if (minLatitude.isPresent()) {
+            predicate.add(factory.spatial().within().field(FIELD_START_POINT).boundingBox(maxLatitude.get(),
+                minLongitude.get(), minLatitude.get(), maxLongitude.get()));
+        }
+        if (search.isPresent()) {
+            SimpleQueryStringPredicateFieldMoreStep<?, ?, ?> step = factory.simpleQueryString() //
+                .field(FIELD_TITLE).boost(5) //
+                .field(FIELD_DESCRIPTION).boost(0.1f) //
+                .field(FIELD_MISSIONS_ID) //
+                .field(FIELD_MISSIONS_TITLE) //
+                .field(FIELD_START_PLACES_INFORMATION_LONG_NAME) //
+                .field(FIELD_START_PLACES_INFORMATION_FORMATTED_ADDRESS);
+            if (queryAuthor) {
+                step = step.field(FIELD_MISSIONS_AUTHOR_NAME);
             }
-        }).sort(factory -> factory.composite(b -> {
+            predicate.add(step.matching(search.get()).defaultOperator(BooleanOperator.AND));
+        }
+        if (missionId.isPresent()) {
+            predicate.add(factory.match().field(FIELD_MISSIONS_ID).matching(missionId.get()));
+        }
+        if (onlyOfficialMissions) {
+            predicate.add(factory.match().field(OfficialBannerBinder.FIELD_OFFICIAL).matching(true));
+        }
+        if (author.isPresent()) {
+            predicate.add(factory.match().field(FIELD_MISSIONS_AUTHOR_NAME).matching(author.get()));
+        }
+        if (listTypes.isPresent()) {
+            predicate.add(createListTypePredicate(factory, listTypes.get(), userId.get()));
+        }
+        if (online.isPresent()) {
+            predicate.add(factory.match().field(FIELD_ONLINE).matching(online.get()));
+        }
+        if (minEventTimestamp.isPresent()) {
+            predicate.add(factory.range().field(FIELD_EVENT_END_TIMESTAMP).greaterThan(minEventTimestamp.get()));
+        }
+        if (maxEventTimestamp.isPresent()) {
+            predicate.add(factory.range().field(FIELD_EVENT_START_TIMESTAMP).atMost(maxEventTimestamp.get()));
+        }
+        if (after.isPresent()) {
+            predicate.add(createAfterPredicate(factory, after.get()));
+        }
+        return predicate;
+    }
+
+    /**
+     * Creates the sort for a search.
+     *
+     * @param factory            Sort factory.
+     * @param orderBy            Optional sort order.
+     * @param orderDirection     Sort direction.
+     * @param proximityLatitude  Optional reference latitude for proximity sorting.
+     * @param proximityLongitude Optional reference longitude for proximity sorting.
+     * @param userId             Optional user ID for sorting by the time banners were added to a list.
+     * @return Sort.
+     */
+    private SortFinalStep createSort(SearchSortFactory factory, Optional<BannerSortOrder> orderBy,
+                                     Direction orderDirection, Optional<Double> proximityLatitude,
+                                     Optional<Double> proximityLongitude, Optional<String> userId) {
+        return factory.composite(b -> {
             if (orderBy.isPresent()) {
                 SortOrder direction = orderDirection == Direction.ASC ? SortOrder.ASC : SortOrder.DESC;
                 switch (orderBy.get()) {
@@ -118,12 +454,11 @@ class LuceneBannerSearchServiceImpl extends BaseBannerSearchServiceImpl {
                         b.add(factory.field(FIELD_CREATED).order(direction));
                         break;
                     case lengthMeters:
-                        b.add(factory.field(FIELD_LENGTH_METERS).order(direction));
+                        b.add(factory.field(FIELD_LENGTH_METERS).order(direction).missing().last());
                         break;
                     case listAdded:
-                        b.add(factory.field(FIELD_SETTINGS_LIST_ADDED)
-                            .filter(x -> x.match().field(FIELD_SETTINGS_USER_ID).matching(userId.get()))
-                            .order(direction));
+                        b.add(factory.field(ListedByBinder.listAddedField(userId.get())).order(direction).missing()
+                            .last());
                         break;
                     case numberOfMissions:
                         b.add(factory.field(FIELD_NUMBER_OF_MISSIONS).order(direction));
@@ -143,9 +478,7 @@ class LuceneBannerSearchServiceImpl extends BaseBannerSearchServiceImpl {
                 }
             }
             b.add(factory.field(FIELD_UUID));
-        })).fetchHits(offset, limit);
-        preloadPlaceInformation(result);
-        return result;
+        });
     }
 
     /**
@@ -167,24 +500,236 @@ class LuceneBannerSearchServiceImpl extends BaseBannerSearchServiceImpl {
             // Therefore, we need to check that no user settings with the remaining types exist.
             return factory.not(createListTypePredicate(factory, otherListTypes, userId));
         } else {
-            return factory.nested(FIELD_SETTINGS) //
-                .add(f -> f.match().field(FIELD_SETTINGS_USER_ID).matching(userId)) //
-                .add(f -> {
-                    SimpleBooleanPredicateClausesStep<?, ?> predicate = f.or();
-                    for (BannerListType listType : listTypes) {
-                        predicate.add(f.match().field(FIELD_SETTINGS_LIST_TYPE).matching(listType));
-                    }
-                    return predicate;
-                });
+            return factory.terms().field(ListedByBinder.FIELD_LISTED_BY)
+                .matchingAny(listTypes.stream().map(listType -> ListedByBinder.listedBy(userId, listType)).toList());
+        }
+    }
+
+    /**
+     * Creates a predicate which only matches hits after a cursor, with respect to the sort order of the cursor.
+     * Banners without sort value are sorted last, and ties are broken by ascending UUID.
+     *
+     * @param factory Predicate factory.
+     * @param cursor  Cursor.
+     * @return Predicate.
+     */
+    private PredicateFinalStep createAfterPredicate(SearchPredicateFactory factory, BannerSearchCursor cursor) {
+        PredicateFinalStep uuidAfter = factory.range().field(FIELD_UUID).greaterThan(cursor.uuid());
+        if (cursor.orderBy() == null) {
+            return uuidAfter;
+        }
+        String field = switch (cursor.orderBy()) {
+            case created -> FIELD_CREATED;
+            case lengthMeters -> FIELD_LENGTH_METERS;
+            case numberOfMissions -> FIELD_NUMBER_OF_MISSIONS;
+            case title -> FIELD_TITLE_SORT;
+            default -> throw new IllegalArgumentException(cursor.orderBy().toString());
+        };
+        PredicateFinalStep valueMissing = factory.not(factory.exists().field(field));
+        if (cursor.value() == null) {
+            return factory.and(valueMissing, uuidAfter);
         }
+        PredicateFinalStep valueAfter = cursor.orderDirection() == Direction.ASC
+            ? factory.range().field(field).greaterThan(cursor.value())
+            : factory.range().field(field).lessThan(cursor.value());
+        PredicateFinalStep sameValue = factory.and(factory.match().field(field).matching(cursor.value()), uuidAfter);
+        return factory.or(valueAfter, sameValue, valueMissing);
     }
 
     @Override
-    public void updateIndex() {
-        try {
-            Search.session(entityManager).massIndexer(Banner.class).startAndWait();
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+    public int updateOfficialFlags() {
+        SearchSession searchSession = Search.session(entityManager);
+        List<UUID> outdated = searchSession.search(Banner.class) //
+            .select(f -> f.field(FIELD_UUID, UUID.class)) //
+            .where(f -> f.or( //
+                f.not(f.exists().field(OfficialBannerBinder.FIELD_OFFICIAL)), //
+                f.and(f.match().field(OfficialBannerBinder.FIELD_OFFICIAL).matching(true),
+                    f.not(createOfficialAuthorPredicate(f))), //
+                f.and(f.match().field(OfficialBannerBinder.FIELD_OFFICIAL).matching(false),
+                    createOfficialAuthorPredicate(f)))) //
+            .fetchAllHits();
+        if (!outdated.isEmpty()) {
+            logger.info("Reindexing {} banners with outdated official flag", outdated.size());
+            for (List<UUID> batch : Lists.partition(outdated, OFFICIAL_FLAG_BATCH_SIZE)) {
+                MassIndexer massIndexer = Search.mapping(entityManagerFactory).scope(Banner.class).massIndexer() //
+                    .purgeAllOnStart(false) //
+                    .mergeSegmentsOnFinish(false);
+                massIndexer.type(Banner.class).reindexOnly("e.uuid in (:uuids)").param("uuids", batch);
+                try {
+                    massIndexer.startAndWait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
         }
+        return outdated.size();
+    }
+
+    /**
+     * Creates a predicate which matches banners with at least one mission by an official mission author, based on
+     * the embedded mission authors.
+     *
+     * @param factory Predicate factory.
+     * @return Predicate.
+     */
+    private PredicateFinalStep createOfficialAuthorPredicate(SearchPredicateFactory factory) {
+        SimpleBooleanPredicateClausesStep<?, ?> predicate = factory.or();
+        for (String officialMissionAuthor : nianticConfiguration.officialMissionAuthors()) {
+            predicate.add(factory.match().field(FIELD_MISSIONS_AUTHOR_NAME).matching(officialMissionAuthor));
+        }
+        return predicate;
+    }
+
+    @Override
+    public List<Banner> suggestBanners(String query, int limit) {
+        SearchSession searchSession = Search.session(entityManager);
+        return searchSession.search(Banner.class) //
+            .select(f -> f.composite().from( //
+                f.field(FIELD_CANONICAL_SLUG, String.class), //
+                f.field(FIELD_TITLE_SORT, String.class) //
+            ).asList()) //
+            .where(f -> f.match().field(FIELD_TITLE_AUTOCOMPLETE).matching(query).minimumShouldMatchPercent(100)) //
+            .sort(f -> f.score().then().field(FIELD_NUMBER_OF_MISSIONS).desc()) //
+            .fetchHits(limit).stream() //
+            .map(fields -> {
+                Banner banner = new Banner();
+                banner.setCanonicalSlug((String) fields.get(0));
+                banner.setTitle((String) fields.get(1));
+                return banner;
+            }) //
+            .toList();
+    }
+
+    @Override
+    public List<Place> suggestPlaces(String query, int limit) {
+        SearchSession searchSession = Search.session(entityManager);
+        return searchSession.search(Place.class) //
+            .select(f -> f.composite().from( //
+                f.field(FIELD_PLACE_SLUG, String.class), //
+                f.field(PlaceInformationBinder.FIELD_INFORMATION, String.class).multi() //
+            ).asList()) //
+            .where(f -> f.and( //
+                f.match().field(FIELD_PLACE_INFORMATION_LONG_NAME_AUTOCOMPLETE).matching(query)
+                    .minimumShouldMatchPercent(100), //
+                f.range().field(FIELD_PLACE_NUMBER_OF_BANNERS).greaterThan(0))) //
+            .sort(f -> f.score().then().field(FIELD_PLACE_NUMBER_OF_BANNERS).desc()) //
+            .fetchHits(limit).stream() //
+            .map(this::toPlaceSummary) //
+            .toList();
+    }
+
+    /**
+     * Creates a detached place out of projected index fields.
+     *
+     * @param fields Projected slug and encoded place information.
+     * @return Place summary.
+     */
+    @SuppressWarnings("unchecked")
+    private Place toPlaceSummary(List<?> fields) {
+        Place place = new Place();
+        place.setSlug((String) fields.get(0));
+        place.setInformation(((List<String>) fields.get(1)).stream()
+            .map(information -> PlaceInformationEncoding.decode(information, place)).collect(Collectors.toList()));
+        return place;
+    }
+
+    @Override
+    public synchronized boolean startReindex(Optional<String> placeSlug, Optional<Instant> changedSince) {
+        BannerReindexJob currentJob = reindexJob.get();
+        if (currentJob != null && currentJob.isRunning()) {
+            return false;
+        }
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (placeSlug.isPresent()) {
+            conditions.add("exists (select p from e.startPlaces p where p.slug = :placeSlug)");
+            parameters.put("placeSlug", placeSlug.get());
+        }
+        if (changedSince.isPresent()) {
+            conditions.add("(e.created >= :changedSince or exists (select m from Mission m where e member of m.banners"
+                + " and (m.latestUpdateSummary >= :changedSince or m.latestUpdateDetails >= :changedSince"
+                + " or m.latestUpdateStatus >= :changedSince)))");
+            parameters.put("changedSince", changedSince.get());
+        }
+        String condition = String.join(" and ", conditions);
+        TypedQuery<Long> countQuery = entityManager.createQuery(
+            "select count(e) from Banner e" + (condition.isEmpty() ? "" : " where " + condition), Long.class);
+        parameters.forEach(countQuery::setParameter);
+        long total = countQuery.getSingleResult();
+        if (condition.isEmpty()) {
+            total += entityManager.createQuery("select count(p) from Place p", Long.class).getSingleResult();
+        }
+        BannerReindexJob job = new BannerReindexJob(placeSlug, changedSince, total);
+
+        SearchMapping searchMapping = Search.mapping(entityManagerFactory);
+        SearchScope<?> scope = condition.isEmpty() ? searchMapping
+            .scope(List.of(Banner.class, Place.class)) : searchMapping.scope(Banner.class);
+        MassIndexer massIndexer = scope.massIndexer() //
+            .purgeAllOnStart(false) //
+            .mergeSegmentsOnFinish(condition.isEmpty()) //
+            .threadsToLoadObjects(reindexConfiguration.threadsToLoadObjects()) //
+            .batchSizeToLoadObjects(reindexConfiguration.batchSizeToLoadObjects()) //
+            .idFetchSize(reindexConfiguration.idFetchSize()) //
+            .monitor(job);
+        if (!condition.isEmpty()) {
+            MassIndexerReindexParameterStep step = massIndexer.type(Banner.class).reindexOnly(condition);
+            parameters.forEach(step::param);
+        }
+        reindexJob.set(job);
+        Instant indexingStarted = Instant.now();
+        massIndexer.start().whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                job.failed(throwable);
+                return;
+            }
+            try {
+                if (condition.isEmpty()) {
+                    purgeStaleDocuments(indexingStarted);
+                }
+                job.completed();
+            } catch (RuntimeException e) {
+                job.failed(e);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Removes documents which were not written since a full reindexing started. As the full reindexing writes the
+     * documents of all existing entities, these documents belong to entities which were deleted without the index
+     * being updated.
+     *
+     * @param indexingStarted Start of the full reindexing.
+     */
+    private void purgeStaleDocuments(Instant indexingStarted) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (Class<?> type : List.of(Banner.class, Place.class)) {
+            List<Object> ids = transactionTemplate.execute(status -> findStaleIds(type, indexingStarted));
+            for (List<Object> batch : Lists.partition(ids, PURGE_BATCH_SIZE)) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    SearchIndexingPlan indexingPlan = Search.session(entityManager).indexingPlan();
+                    batch.forEach(id -> indexingPlan.purge(type, id, null));
+                });
+            }
+            if (!ids.isEmpty()) {
+                logger.info("Removed {} stale {} documents from the index", ids.size(), type.getSimpleName());
+            }
+        }
+    }
+
+    private <T> List<Object> findStaleIds(Class<T> type, Instant indexingStarted) {
+        // Documents written before the binder existed have no timestamp at all
+        return Search.session(entityManager).search(type) //
+            .select(f -> f.id()) //
+            .where(f -> f.matchAll().except(f.range().field(IndexedAtBinder.FIELD_INDEXED_AT)
+                .atLeast(indexingStarted.toEpochMilli()))) //
+            .fetchAllHits();
+    }
+
+    @Override
+    public ReindexStatus getReindexStatus() {
+        BannerReindexJob job = reindexJob.get();
+        return job == null ? ReindexStatus.IDLE : job.getStatus();
     }
 }
@@ -0,0 +1,62 @@
+package com.bannergress.backend.banner.search;
+
+import com.bannergress.backend.mission.Mission;
+import org.hibernate.search.engine.backend.document.DocumentElement;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.engine.backend.types.Projectable;
+import org.hibernate.search.engine.backend.types.Sortable;
+import org.hibernate.search.engine.environment.bean.BeanHolder;
+import org.hibernate.search.engine.environment.bean.BeanReference;
+import org.hibernate.search.mapper.pojo.bridge.PropertyBridge;
+import org.hibernate.search.mapper.pojo.bridge.binding.PropertyBindingContext;
+import org.hibernate.search.mapper.pojo.bridge.mapping.programmatic.PropertyBinder;
+import org.hibernate.search.mapper.pojo.bridge.runtime.PropertyBridgeWriteContext;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binder which stores whether any mission of a banner was created by one of the
+ * {@link NianticConfiguration#officialMissionAuthors() official mission authors}.
+ */
+public class OfficialBannerBinder implements PropertyBinder {
+    /** Field containing the official flag. */
+    static final String FIELD_OFFICIAL = "official";
+
+    @Override
+    public void bind(PropertyBindingContext context) {
+        context.dependencies().use("author.name");
+        Set<String> officialMissionAuthors;
+        try (BeanHolder<NianticConfiguration> nianticConfiguration = context.beanResolver()
+            .resolve(BeanReference.of(NianticConfiguration.class))) {
+            officialMissionAuthors = Set.copyOf(nianticConfiguration.get().officialMissionAuthors());
+        }
+        IndexFieldReference<Boolean> officialField = context.indexSchemaElement()
+            .field(FIELD_OFFICIAL, f -> f.asBoolean().sortable(Sortable.YES).aggregable(Aggregable.YES)
+                .projectable(Projectable.YES))
+            .toReference();
+        context.bridge(Map.class, new Bridge(officialField, officialMissionAuthors));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static class Bridge implements PropertyBridge<Map> {
+        private final IndexFieldReference<Boolean> officialField;
+
+        private final Set<String> officialMissionAuthors;
+
+        private Bridge(IndexFieldReference<Boolean> officialField, Set<String> officialMissionAuthors) {
+            this.officialField = officialField;
+            this.officialMissionAuthors = officialMissionAuthors;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void write(DocumentElement target, Map bridgedElement, PropertyBridgeWriteContext context) {
+            Map<Integer, Mission> missions = bridgedElement;
+            boolean official = missions.values().stream().anyMatch(mission -> mission.getAuthor() != null
+                && officialMissionAuthors.contains(mission.getAuthor().getName()));
+            target.addValue(officialField, official);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.bannergress.backend.banner.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reindexes banners whose official flag is outdated after the official mission authors were changed.
+ */
+@Component
+class OfficialBannerVerifier {
+    private static final Logger logger = LoggerFactory.getLogger(OfficialBannerVerifier.class);
+
+    @Autowired
+    private BannerSearchService bannerSearchService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        CompletableFuture.supplyAsync(bannerSearchService::updateOfficialFlags).whenComplete((count, ex) -> {
+            if (ex != null) {
+                logger.error("Failed to update official flags", ex);
+            } else {
+                logger.info("Updated official flags of {} banners", count);
+            }
+        });
+    }
+}
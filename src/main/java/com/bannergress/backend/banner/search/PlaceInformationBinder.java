@@ -0,0 +1,52 @@
+package com.bannergress.backend.banner.search;
+
+import com.bannergress.backend.place.PlaceInformation;
+import org.hibernate.search.engine.backend.document.DocumentElement;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.types.Projectable;
+import org.hibernate.search.engine.backend.types.Searchable;
+import org.hibernate.search.mapper.pojo.bridge.PropertyBridge;
+import org.hibernate.search.mapper.pojo.bridge.binding.PropertyBindingContext;
+import org.hibernate.search.mapper.pojo.bridge.mapping.programmatic.PropertyBinder;
+import org.hibernate.search.mapper.pojo.bridge.runtime.PropertyBridgeWriteContext;
+
+import java.util.List;
+
+/**
+ * Binder which stores the translated names of a place as projectable field, so that place suggestions can be
+ * created from the index.
+ */
+public class PlaceInformationBinder implements PropertyBinder {
+    /** Field containing the encoded information of the place, one value per language. */
+    static final String FIELD_INFORMATION = "informationSummary";
+
+    @Override
+    public void bind(PropertyBindingContext context) {
+        context.dependencies() //
+            .use("languageCode") //
+            .use("longName") //
+            .use("formattedAddress");
+        IndexFieldReference<String> informationField = context.indexSchemaElement()
+            .field(FIELD_INFORMATION, f -> f.asString().searchable(Searchable.NO).projectable(Projectable.YES))
+            .multiValued().toReference();
+        context.bridge(List.class, new Bridge(informationField));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static class Bridge implements PropertyBridge<List> {
+        private final IndexFieldReference<String> informationField;
+
+        private Bridge(IndexFieldReference<String> informationField) {
+            this.informationField = informationField;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void write(DocumentElement target, List bridgedElement, PropertyBridgeWriteContext context) {
+            List<PlaceInformation> informationList = bridgedElement;
+            for (PlaceInformation information : informationList) {
+                target.addValue(informationField, PlaceInformationEncoding.encode(information));
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.bannergress.backend.banner.search;
+
+import com.bannergress.backend.place.Place;
+import com.bannergress.backend.place.PlaceInformation;
+import com.google.common.base.Splitter;
+
+import java.util.List;
+
+/**
+ * Encodes the translated names of a place into single index values, so that they can be projected together.
+ */
+final class PlaceInformationEncoding {
+    private static final char SEPARATOR = '\u001F';
+
+    private PlaceInformationEncoding() {
+    }
+
+    /**
+     * Encodes place information for the index.
+     *
+     * @param information Place information.
+     * @return Encoded place information.
+     */
+    static String encode(PlaceInformation information) {
+        return information.getLanguageCode() + SEPARATOR + information.getLongName() + SEPARATOR
+            + information.getFormattedAddress();
+    }
+
+    /**
+     * Decodes place information that was encoded by {@link #encode(PlaceInformation)}.
+     *
+     * @param encoded Encoded place information.
+     * @param place   Place the information belongs to.
+     * @return Detached place information.
+     */
+    static PlaceInformation decode(String encoded, Place place) {
+        List<String> parts = Splitter.on(SEPARATOR).limit(3).splitToList(encoded);
+        PlaceInformation information = new PlaceInformation();
+        information.setPlace(place);
+        information.setLanguageCode(parts.get(0));
+        information.setLongName(parts.get(1));
+        information.setFormattedAddress(parts.get(2));
+        return information;
+    }
+}
@@ -0,0 +1,14 @@
+package com.bannergress.backend.banner.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for reindexing banners.
+ *
+ * @param threadsToLoadObjects   Number of threads which load banners for indexing.
+ * @param batchSizeToLoadObjects Number of banners to load per batch.
+ * @param idFetchSize            Fetch size for loading the IDs of banners to reindex.
+ */
+@ConfigurationProperties("search.reindex")
+public record ReindexConfiguration(int threadsToLoadObjects, int batchSizeToLoadObjects, int idFetchSize) {
+}
@@ -0,0 +1,40 @@
+package com.bannergress.backend.banner.search;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import java.time.Instant;
+
+/**
+ * Status of the current or most recent reindexing.
+ *
+ * @param state              State.
+ * @param placeSlug          Place slug, if only banners in a place are reindexed.
+ * @param changedSince       Timestamp, if only banners changed since then are reindexed.
+ * @param started            Start timestamp.
+ * @param finished           End timestamp, if reindexing has finished.
+ * @param total              Number of banners to reindex.
+ * @param loaded             Number of banners loaded so far.
+ * @param indexed            Number of banners written to the index so far.
+ * @param documentsPerSecond Average number of banners written to the index per second.
+ * @param error              Error message, if reindexing failed.
+ */
+@JsonInclude(Include.NON_NULL)
+public record ReindexStatus(State state, String placeSlug, Instant changedSince, Instant started, Instant finished,
+                            Long total, Long loaded, Long indexed, Double documentsPerSecond, String error) {
+    /** Status before the first reindexing. */
+    static final ReindexStatus IDLE = new ReindexStatus(State.idle, null, null, null, null, null, null, null, null,
+        null);
+
+    /** State of reindexing. */
+    public enum State {
+        /** No reindexing has been started yet. */
+        idle,
+        /** Reindexing is in progress. */
+        running,
+        /** Reindexing has completed successfully. */
+        completed,
+        /** Reindexing has failed. */
+        failed
+    }
+}
@@ -0,0 +1,94 @@
+package com.bannergress.backend.banner.search;
+
+import com.bannergress.backend.spatial.DistanceCalculation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs canned representative searches on startup, so that index segments, doc values of sort fields and the spatial
+ * libraries are loaded before the first request. Application runners complete before Spring Boot publishes
+ * {@link ReadinessState#ACCEPTING_TRAFFIC}, so the readiness probe only succeeds after the warm-up.
+ */
+@Component
+class SearchWarmup implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(SearchWarmup.class);
+
+    private static final int LIMIT = 24;
+
+    @Autowired
+    private BannerSearchService bannerSearchService;
+
+    @Autowired
+    private WarmupConfiguration configuration;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!configuration.enabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        DistanceCalculation.initialize();
+        List<Runnable> queries = createQueries();
+        for (int i = 0; i < configuration.iterations(); i++) {
+            for (Runnable query : queries) {
+                try {
+                    query.run();
+                } catch (RuntimeException e) {
+                    logger.warn("Warm-up query failed", e);
+                }
+            }
+        }
+        logger.info("Search warm-up with {} queries took {} ms", queries.size() * configuration.iterations(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private List<Runnable> createQueries() {
+        List<Runnable> queries = new ArrayList<>();
+        for (BannerSortOrder orderBy : List.of(BannerSortOrder.created, BannerSortOrder.title,
+            BannerSortOrder.numberOfMissions, BannerSortOrder.lengthMeters)) {
+            for (Direction direction : Direction.values()) {
+                queries.add(() -> find(Optional.empty(), Optional.empty(), Optional.of(orderBy), direction,
+                    Optional.empty(), Optional.empty()));
+            }
+        }
+        queries.add(() -> find(Optional.empty(), Optional.empty(), Optional.of(BannerSortOrder.proximityStartPoint),
+            Direction.ASC, Optional.of(0.0), Optional.of(0.0)));
+        queries.add(() -> find(Optional.empty(), Optional.of("banner"), Optional.of(BannerSortOrder.relevance),
+            Direction.DESC, Optional.empty(), Optional.empty()));
+        for (String placeSlug : configuration.placeSlugs()) {
+            queries.add(() -> find(Optional.of(placeSlug), Optional.empty(), Optional.of(BannerSortOrder.created),
+                Direction.DESC, Optional.empty(), Optional.empty()));
+        }
+        queries.add(() -> bannerSearchService.findSummaries(Optional.empty(), Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.empty(), false, Optional.empty(), false, Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.of(true), Optional.of(BannerSortOrder.created),
+            Direction.DESC, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            0, LIMIT));
+        queries.add(() -> bannerSearchService.findFacets(Optional.empty(), Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.empty(), false, Optional.empty(), false, Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), 10));
+        queries.add(() -> bannerSearchService.suggestBanners("a", 10));
+        queries.add(() -> bannerSearchService.suggestPlaces("a", 10));
+        return queries;
+    }
+
+    private void find(Optional<String> placeSlug, Optional<String> query, Optional<BannerSortOrder> orderBy,
+                      Direction orderDirection, Optional<Double> proximityLatitude,
+                      Optional<Double> proximityLongitude) {
+        bannerSearchService.find(placeSlug, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            query, false, Optional.empty(), false, Optional.empty(), Optional.empty(), Optional.empty(),
+            Optional.empty(), orderBy, orderDirection, proximityLatitude, proximityLongitude, Optional.empty(),
+            Optional.empty(), Optional.empty(), 0, LIMIT);
+    }
+}
@@ -0,0 +1,68 @@
+package com.bannergress.backend.banner.search;
+
+import com.bannergress.backend.spatial.Geohash;
+import com.bannergress.backend.spatial.Spatial;
+import org.hibernate.search.engine.backend.document.DocumentElement;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.engine.backend.types.Searchable;
+import org.hibernate.search.mapper.pojo.bridge.PropertyBridge;
+import org.hibernate.search.mapper.pojo.bridge.binding.PropertyBindingContext;
+import org.hibernate.search.mapper.pojo.bridge.mapping.programmatic.PropertyBinder;
+import org.hibernate.search.mapper.pojo.bridge.runtime.PropertyBridgeWriteContext;
+import org.locationtech.jts.geom.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binder which stores the geohash of the start point of a banner in one aggregable field per precision, so that
+ * banners can be clustered by aggregations instead of by loading all hits.
+ */
+public class StartGeohashBinder implements PropertyBinder {
+    /** Maximum precision which is indexed. */
+    static final int MAX_PRECISION = 8;
+
+    /**
+     * Returns the field containing the geohash of the start point in the given precision.
+     *
+     * @param precision Precision, between 1 and {@link #MAX_PRECISION}.
+     * @return Field name.
+     */
+    static String field(int precision) {
+        return "startGeohash" + precision;
+    }
+
+    @Override
+    public void bind(PropertyBindingContext context) {
+        context.dependencies().useRootOnly();
+        IndexSchemaElement schemaElement = context.indexSchemaElement();
+        List<IndexFieldReference<String>> fields = new ArrayList<>();
+        for (int precision = 1; precision <= MAX_PRECISION; precision++) {
+            fields.add(schemaElement
+                .field(field(precision), f -> f.asString().searchable(Searchable.NO).aggregable(Aggregable.YES))
+                .toReference());
+        }
+        context.bridge(Point.class, new Bridge(fields));
+    }
+
+    private static class Bridge implements PropertyBridge<Point> {
+        private final List<IndexFieldReference<String>> fields;
+
+        private Bridge(List<IndexFieldReference<String>> fields) {
+            this.fields = fields;
+        }
+
+        @Override
+        public void write(DocumentElement target, Point bridgedElement, PropertyBridgeWriteContext context) {
+            if (bridgedElement != null) {
+                String geohash = Geohash.encode(Spatial.getLatitude(bridgedElement),
+                    Spatial.getLongitude(bridgedElement), MAX_PRECISION);
+                for (int precision = 1; precision <= MAX_PRECISION; precision++) {
+                    target.addValue(fields.get(precision - 1), geohash.substring(0, precision));
+                }
+            }
+        }
+    }
+}
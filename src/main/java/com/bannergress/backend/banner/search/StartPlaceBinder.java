@@ -0,0 +1,72 @@
+package com.bannergress.backend.banner.search;
+
+import com.bannergress.backend.place.Place;
+import com.bannergress.backend.place.PlaceInformation;
+import org.hibernate.search.engine.backend.document.DocumentElement;
+import org.hibernate.search.engine.backend.document.IndexFieldReference;
+import org.hibernate.search.engine.backend.document.model.dsl.IndexSchemaElement;
+import org.hibernate.search.engine.backend.types.Projectable;
+import org.hibernate.search.engine.backend.types.Searchable;
+import org.hibernate.search.mapper.pojo.bridge.PropertyBridge;
+import org.hibernate.search.mapper.pojo.bridge.binding.PropertyBindingContext;
+import org.hibernate.search.mapper.pojo.bridge.mapping.programmatic.PropertyBinder;
+import org.hibernate.search.mapper.pojo.bridge.runtime.PropertyBridgeWriteContext;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Binder which stores the most accurate start place of a banner as projectable fields, so that list results can be
+ * created from the index without loading places and place information from the database.
+ */
+public class StartPlaceBinder implements PropertyBinder {
+    /** Field containing the slug of the most accurate start place. */
+    static final String FIELD_SLUG = "startPlaceSlug";
+
+    /** Field containing the encoded information of the most accurate start place, one value per language. */
+    static final String FIELD_INFORMATION = "startPlaceInformation";
+
+    @Override
+    public void bind(PropertyBindingContext context) {
+        context.dependencies() //
+            .use("slug") //
+            .use("type") //
+            .use("information.languageCode") //
+            .use("information.longName") //
+            .use("information.formattedAddress");
+        IndexSchemaElement schemaElement = context.indexSchemaElement();
+        IndexFieldReference<String> slugField = schemaElement
+            .field(FIELD_SLUG, f -> f.asString().searchable(Searchable.NO).projectable(Projectable.YES))
+            .toReference();
+        IndexFieldReference<String> informationField = schemaElement
+            .field(FIELD_INFORMATION, f -> f.asString().searchable(Searchable.NO).projectable(Projectable.YES))
+            .multiValued().toReference();
+        context.bridge(Set.class, new Bridge(slugField, informationField));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static class Bridge implements PropertyBridge<Set> {
+        private final IndexFieldReference<String> slugField;
+
+        private final IndexFieldReference<String> informationField;
+
+        private Bridge(IndexFieldReference<String> slugField, IndexFieldReference<String> informationField) {
+            this.slugField = slugField;
+            this.informationField = informationField;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void write(DocumentElement target, Set bridgedElement, PropertyBridgeWriteContext context) {
+            Set<Place> places = bridgedElement;
+            Optional<Place> mostAccurate = places.stream().max(Comparator.comparing(Place::getType));
+            if (mostAccurate.isPresent()) {
+                target.addValue(slugField, mostAccurate.get().getSlug());
+                for (PlaceInformation information : mostAccurate.get().getInformation()) {
+                    target.addValue(informationField, PlaceInformationEncoding.encode(information));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.bannergress.backend.banner.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Configuration for warming up the search index on startup.
+ *
+ * @param enabled    Whether to warm up before the application reports readiness.
+ * @param iterations Number of times the canned queries are run.
+ * @param placeSlugs Slugs of places whose banner lists are queried in addition, typically the most visited ones.
+ */
+@ConfigurationProperties("search.warmup")
+public record WarmupConfiguration(boolean enabled, int iterations, List<String> placeSlugs) {
+}
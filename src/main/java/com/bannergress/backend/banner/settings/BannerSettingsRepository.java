@@ -1,5 +1,6 @@
 package com.bannergress.backend.banner.settings;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Collection;
@@ -13,5 +14,6 @@ import java.util.UUID;
 public interface BannerSettingsRepository extends JpaRepository<BannerSettings, UUID> {
     Optional<BannerSettings> findByUserIdAndBannerCanonicalSlug(String userId, String bannerSlug);
 
+    @EntityGraph(attributePaths = "banner")
     List<BannerSettings> findByUserIdAndBannerCanonicalSlugIn(String userId, Collection<String> bannerSlugs);
 }
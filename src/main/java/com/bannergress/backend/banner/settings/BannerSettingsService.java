@@ -18,7 +18,8 @@ public interface BannerSettingsService {
     void addBannerToList(String userId, String bannerSlug, BannerListType listType);
 
     /**
-     * Retrieves banner settings user and a collection of banners.
+     * Retrieves banner settings user and a collection of banners. The banners of the settings are fetched in the same
+     * query.
      *
      * @param userId  ID of the user.
      * @param banners Canonical slugs of banner for which to retrieve the settings.
@@ -1,17 +1,28 @@
 package com.bannergress.backend.config;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.util.UrlPathHelper;
 
 /**
  * Configuration for ETag generation.
  */
 @Configuration
 public class EtagConfiguration {
+    /** Paths which set their own ETags and must not be buffered. */
+    private static final String PICTURES_PATH = "/bnrs/pictures/";
+
     @Bean
     ShallowEtagHeaderFilter shallowEtagHeaderFilter() {
-        ShallowEtagHeaderFilter result = new ShallowEtagHeaderFilter();
+        UrlPathHelper urlPathHelper = new UrlPathHelper();
+        ShallowEtagHeaderFilter result = new ShallowEtagHeaderFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                return urlPathHelper.getPathWithinApplication(request).startsWith(PICTURES_PATH);
+            }
+        };
         result.setWriteWeakETag(true);
         return result;
     }
@@ -1,5 +1,6 @@
 package com.bannergress.backend.config;
 
+import com.bannergress.backend.banner.BannerController;
 import com.bannergress.backend.utils.LanguageRangeResolver;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
@@ -15,8 +16,8 @@ public class Webconfiguration implements WebMvcConfigurer {
 
     @Override
     public void addCorsMappings(CorsRegistry registry) {
-        // Allows CORS from all endpoints to any origin
-        registry.addMapping("/**").allowedMethods("*");
+        // Allows CORS from all endpoints to any origin, and lets clients read the paging cursor
+        registry.addMapping("/**").allowedMethods("*").exposedHeaders(BannerController.NEXT_CURSOR_HEADER);
     }
 
     @Override
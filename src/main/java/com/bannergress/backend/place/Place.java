@@ -1,14 +1,24 @@
 package com.bannergress.backend.place;
 
 import com.bannergress.backend.banner.Banner;
+import com.bannergress.backend.banner.search.IndexedAtBinder;
+import com.bannergress.backend.banner.search.PlaceInformationBinder;
 import com.bannergress.backend.utils.PojoBuilder;
 import jakarta.persistence.*;
 import net.karneim.pojobuilder.GeneratePojoBuilder;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.NaturalId;
 import org.hibernate.envers.NotAudited;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.engine.backend.types.Projectable;
+import org.hibernate.search.engine.backend.types.Sortable;
+import org.hibernate.search.mapper.pojo.bridge.mapping.annotation.PropertyBinderRef;
+import org.hibernate.search.mapper.pojo.bridge.mapping.annotation.TypeBinderRef;
 import org.hibernate.search.mapper.pojo.mapping.definition.annotation.GenericField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
 import org.hibernate.search.mapper.pojo.mapping.definition.annotation.IndexedEmbedded;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.PropertyBinding;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.TypeBinding;
 import org.hibernate.type.SqlTypes;
 
 import java.util.*;
@@ -18,6 +28,8 @@ import java.util.*;
  */
 @Entity
 @Table(name = "place")
+@Indexed
+@TypeBinding(binder = @TypeBinderRef(type = IndexedAtBinder.class))
 @GeneratePojoBuilder(withBuilderInterface = PojoBuilder.class)
 public class Place {
     /**
@@ -32,7 +44,7 @@ public class Place {
      */
     @NaturalId
     @Column(name = "slug", nullable = false)
-    @GenericField
+    @GenericField(aggregable = Aggregable.YES, projectable = Projectable.YES)
     private String slug;
 
     /**
@@ -44,6 +56,7 @@ public class Place {
     private PlaceType type;
 
     @Column(name = "number_of_banners", nullable = false)
+    @GenericField(sortable = Sortable.YES)
     private int numberOfBanners;
 
     /**
@@ -51,6 +64,7 @@ public class Place {
      */
     @OneToMany(mappedBy = "place", cascade = CascadeType.ALL, orphanRemoval = true)
     @IndexedEmbedded
+    @PropertyBinding(binder = @PropertyBinderRef(type = PlaceInformationBinder.class))
     private List<PlaceInformation> information = new ArrayList<>();
 
     /**
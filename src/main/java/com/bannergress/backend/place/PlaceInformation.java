@@ -1,5 +1,6 @@
 package com.bannergress.backend.place;
 
+import com.bannergress.backend.banner.search.AutocompleteAnalysisConfigurer;
 import com.bannergress.backend.utils.PojoBuilder;
 import jakarta.persistence.*;
 import net.karneim.pojobuilder.GeneratePojoBuilder;
@@ -40,6 +41,7 @@ public class PlaceInformation {
      */
     @Column(name = "long_name", nullable = false)
     @FullTextField
+    @FullTextField(name = "longNameAutocomplete", analyzer = AutocompleteAnalysisConfigurer.ANALYZER_INDEXING, searchAnalyzer = AutocompleteAnalysisConfigurer.ANALYZER_SEARCH)
     private String longName;
 
     /**
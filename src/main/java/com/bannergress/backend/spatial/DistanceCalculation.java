@@ -41,6 +41,13 @@ public final class DistanceCalculation {
         return (int) Math.round(distance);
     }
 
+    /**
+     * Initializes the coordinate reference system, which is otherwise done lazily on the first calculation.
+     */
+    public static void initialize() {
+        getDistance(0, 0, 0, 0);
+    }
+
     private static double getDistance(double lat1, double lon1, double lat2, double lon2) {
         GeodeticCalculator gc = new GeodeticCalculator(DefaultGeographicCRS.WGS84);
         gc.setStartingGeographicPoint(lon1, lat1);
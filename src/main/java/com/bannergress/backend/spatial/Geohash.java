@@ -0,0 +1,104 @@
+package com.bannergress.backend.spatial;
+
+import com.google.common.base.Preconditions;
+import org.hibernate.search.engine.spatial.GeoPoint;
+
+/**
+ * Geohash encoding of coordinates.
+ */
+public final class Geohash {
+    /** Maximum supported precision (number of characters). */
+    public static final int MAX_PRECISION = 12;
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private static final int BITS_PER_CHARACTER = 5;
+
+    private Geohash() {
+    }
+
+    /**
+     * Encodes coordinates into a geohash.
+     *
+     * @param latitude  Latitude.
+     * @param longitude Longitude.
+     * @param precision Number of characters of the geohash, between 1 and {@link #MAX_PRECISION}.
+     * @return Geohash.
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        Preconditions.checkArgument(precision >= 1 && precision <= MAX_PRECISION);
+        double minLatitude = -90;
+        double maxLatitude = 90;
+        double minLongitude = -180;
+        double maxLongitude = 180;
+        StringBuilder result = new StringBuilder(precision);
+        boolean isLongitudeBit = true;
+        int bits = 0;
+        int character = 0;
+        while (result.length() < precision) {
+            character <<= 1;
+            if (isLongitudeBit) {
+                double middle = (minLongitude + maxLongitude) / 2;
+                if (longitude >= middle) {
+                    character |= 1;
+                    minLongitude = middle;
+                } else {
+                    maxLongitude = middle;
+                }
+            } else {
+                double middle = (minLatitude + maxLatitude) / 2;
+                if (latitude >= middle) {
+                    character |= 1;
+                    minLatitude = middle;
+                } else {
+                    maxLatitude = middle;
+                }
+            }
+            isLongitudeBit = !isLongitudeBit;
+            if (++bits == BITS_PER_CHARACTER) {
+                result.append(BASE32.charAt(character));
+                bits = 0;
+                character = 0;
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Decodes the center of the cell of a geohash.
+     *
+     * @param geohash Geohash.
+     * @return Center of the cell.
+     */
+    public static GeoPoint center(String geohash) {
+        double minLatitude = -90;
+        double maxLatitude = 90;
+        double minLongitude = -180;
+        double maxLongitude = 180;
+        boolean isLongitudeBit = true;
+        for (int i = 0; i < geohash.length(); i++) {
+            int character = BASE32.indexOf(geohash.charAt(i));
+            Preconditions.checkArgument(character >= 0, "invalid geohash: %s", geohash);
+            for (int bit = BITS_PER_CHARACTER - 1; bit >= 0; bit--) {
+                boolean set = (character & (1 << bit)) != 0;
+                if (isLongitudeBit) {
+                    double middle = (minLongitude + maxLongitude) / 2;
+                    if (set) {
+                        minLongitude = middle;
+                    } else {
+                        maxLongitude = middle;
+                    }
+                } else {
+                    double middle = (minLatitude + maxLatitude) / 2;
+                    if (set) {
+                        minLatitude = middle;
+                    } else {
+                        maxLatitude = middle;
+                    }
+                }
+                isLongitudeBit = !isLongitudeBit;
+            }
+        }
+        return GeoPoint.of((minLatitude + maxLatitude) / 2, (minLongitude + maxLongitude) / 2);
+    }
+}
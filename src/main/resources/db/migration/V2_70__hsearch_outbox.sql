@@ -0,0 +1,24 @@
+CREATE TABLE hsearch_outbox_event (
+  id uuid NOT NULL,
+  entity_name varchar(256) NOT NULL,
+  entity_id varchar(256) NOT NULL,
+  entity_id_hash integer NOT NULL,
+  payload bytea NOT NULL,
+  retries integer NOT NULL,
+  process_after timestamp(6) with time zone NOT NULL,
+  status smallint NOT NULL,
+  PRIMARY KEY (id)
+);
+CREATE INDEX hsearch_outbox_event_pa_idx ON hsearch_outbox_event (process_after, id);
+
+CREATE TABLE hsearch_agent (
+  id uuid NOT NULL,
+  type smallint NOT NULL,
+  name varchar(255) NOT NULL,
+  expiration timestamp(6) with time zone NOT NULL,
+  state smallint NOT NULL,
+  total_shard_count integer,
+  assigned_shard_index integer,
+  payload bytea,
+  PRIMARY KEY (id)
+);
@@ -0,0 +1 @@
+ALTER TABLE banner_picture ALTER COLUMN picture DROP NOT NULL;
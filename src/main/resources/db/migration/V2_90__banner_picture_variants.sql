@@ -0,0 +1,7 @@
+CREATE TABLE banner_picture_variant (
+  hash text NOT NULL,
+  size text NOT NULL,
+  picture bytea NOT NULL,
+  PRIMARY KEY (hash, size),
+  FOREIGN KEY (hash) REFERENCES banner_picture (hash) ON DELETE CASCADE
+);
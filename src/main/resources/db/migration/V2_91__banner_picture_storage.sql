@@ -0,0 +1,5 @@
+ALTER TABLE banner_picture ADD COLUMN rendered boolean NOT NULL DEFAULT false;
+ALTER TABLE banner_picture ADD COLUMN variants_pending boolean NOT NULL DEFAULT false;
+UPDATE banner_picture p SET rendered = true,
+  variants_pending = NOT EXISTS (SELECT 1 FROM banner_picture_variant v WHERE v.hash = p.hash)
+  WHERE p.picture IS NOT NULL;
@@ -0,0 +1,2 @@
+CREATE INDEX ON banner (picture);
+CREATE INDEX ON banner_picture (expiration) WHERE expiration IS NOT NULL;
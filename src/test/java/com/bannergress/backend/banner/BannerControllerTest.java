@@ -1,7 +1,13 @@
 package com.bannergress.backend.banner;
 
+import com.bannergress.backend.banner.search.BannerCluster;
+import com.bannergress.backend.banner.search.BannerFacets;
+import com.bannergress.backend.banner.search.BannerSearchCursor;
 import com.bannergress.backend.banner.search.BannerSearchService;
+import com.bannergress.backend.banner.search.BannerSortOrder;
+import com.bannergress.backend.banner.search.ReindexStatus;
 import com.bannergress.backend.banner.settings.BannerSettingsServiceImpl;
+import com.bannergress.backend.place.Place;
 import com.bannergress.backend.place.PlaceServiceImpl;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -10,7 +16,9 @@ import org.springframework.data.domain.Sort.Direction;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.bannergress.backend.testutils.builder.BuilderMethods.a;
@@ -20,9 +28,11 @@ import static com.bannergress.backend.testutils.builder.JavatypeBuilder.$Double;
 import static com.bannergress.backend.testutils.builder.JavatypeBuilder.$String;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class BannerControllerTest {
@@ -39,11 +49,11 @@ class BannerControllerTest {
         final Optional<String> place = Optional.of(a($String()));
         final Banner banner = fixPlaceInformation(a($Banner()));
 
-        when(bannerSearchService.find(eq(place), eq(Optional.empty()), eq(Optional.empty()), eq(Optional.empty()),
+        when(bannerSearchService.findSummaries(eq(place), eq(Optional.empty()), eq(Optional.empty()), eq(Optional.empty()),
             eq(Optional.empty()), eq(Optional.empty()), eq(false), eq(Optional.empty()), eq(false),
             eq(Optional.empty()), eq(Optional.empty()), eq(Optional.empty()), eq(Optional.empty()),
             eq(Optional.empty()), any(), eq(Optional.empty()), eq(Optional.empty()), eq(Optional.empty()),
-            eq(Optional.empty()), eq(0), anyInt())).thenReturn(List.of(banner));
+            eq(Optional.empty()), eq(Optional.empty()), eq(0), anyInt())).thenReturn(List.of(banner));
 
         // THEN
         final ResponseEntity<List<BannerDto>> result = testController.list(place, Optional.empty(), Optional.empty(),
@@ -51,7 +61,7 @@ class BannerControllerTest {
             Optional.empty(), Optional.empty(), Optional.empty(), Direction.ASC, Optional.empty(), Optional.empty(),
             Optional.empty(), Optional.empty(), Optional.of(ImmutableSet.of(BannerDtoAttribute.id,
                 BannerDtoAttribute.numberOfMissions, BannerDtoAttribute.lengthMeters)),
-            0, 100, null, ImmutableList.of());
+            Optional.empty(), 0, 100, null, ImmutableList.of());
 
         // VERIFY
         assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -78,8 +88,8 @@ class BannerControllerTest {
         final Optional<Double> maxLong = Optional.of(a($Double()));
         final Banner banner = fixPlaceInformation(a($Banner()));
 
-        when(bannerSearchService.find(eq(Optional.empty()), eq(minLat), eq(maxLat), eq(minLong), eq(maxLong), any(),
-            eq(false), any(), eq(false), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), eq(0), anyInt()))
+        when(bannerSearchService.findSummaries(eq(Optional.empty()), eq(minLat), eq(maxLat), eq(minLong), eq(maxLong), any(),
+            eq(false), any(), eq(false), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), eq(0), anyInt()))
                 .thenReturn(List.of(banner));
 
         // THEN
@@ -88,7 +98,7 @@ class BannerControllerTest {
             Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Direction.ASC, Optional.empty(),
             Optional.empty(), Optional.empty(), Optional.empty(), Optional.of(ImmutableSet.of(BannerDtoAttribute.id,
                 BannerDtoAttribute.numberOfMissions, BannerDtoAttribute.lengthMeters)),
-            0, 100, null, ImmutableList.of());
+            Optional.empty(), 0, 100, null, ImmutableList.of());
 
         // VERIFY
         assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -99,13 +109,172 @@ class BannerControllerTest {
         assertThat(bannerDto.lengthMeters).isEqualTo(banner.getLengthMeters());
     }
 
+    @Test
+    void list_withCursor() {
+        // WHEN
+        final Banner banner = fixPlaceInformation(a($Banner()));
+        final BannerSearchCursor cursor = BannerSearchCursor
+            .after(Optional.of(BannerSortOrder.created), Direction.DESC, banner).get();
+
+        when(bannerSearchService.findSummaries(any(), any(), any(), any(), any(), any(), eq(false), any(), eq(false), any(),
+            any(), any(), any(), eq(Optional.of(BannerSortOrder.created)), eq(Direction.DESC), any(), any(), any(),
+            any(), eq(Optional.of(cursor)), eq(0), eq(1))).thenReturn(List.of(banner));
+
+        // THEN
+        final ResponseEntity<List<BannerDto>> result = testController.list(Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), false,
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.of(BannerSortOrder.created),
+            Direction.DESC, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            Optional.of(ImmutableSet.of(BannerDtoAttribute.id)), Optional.of(cursor.encode()), 0, 1, null,
+            ImmutableList.of());
+
+        // VERIFY
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).hasSize(1);
+        assertThat(result.getHeaders().getFirst(BannerController.NEXT_CURSOR_HEADER)).isEqualTo(cursor.encode());
+    }
+
+    @Test
+    void list_withDetailAttributes() {
+        // WHEN
+        final Banner banner = fixPlaceInformation(a($Banner()));
+
+        when(bannerSearchService.find(any(), any(), any(), any(), any(), any(), eq(false), any(), eq(false), any(),
+            any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), eq(0), anyInt()))
+                .thenReturn(List.of(banner));
+
+        // THEN
+        final ResponseEntity<List<BannerDto>> result = testController.list(Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), false,
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Direction.ASC, Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.empty(),
+            Optional.of(ImmutableSet.of(BannerDtoAttribute.id, BannerDtoAttribute.description)), Optional.empty(), 0,
+            100, null, ImmutableList.of());
+
+        // VERIFY
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).hasSize(1);
+        assertThat(result.getBody().get(0).description).isEqualTo(banner.getDescription());
+    }
+
+    @Test
+    void list_withCursorForOtherSortOrder() {
+        // WHEN
+        final Banner banner = a($Banner());
+        final BannerSearchCursor cursor = BannerSearchCursor
+            .after(Optional.of(BannerSortOrder.created), Direction.DESC, banner).get();
+
+        // THEN
+        final ResponseEntity<List<BannerDto>> result = testController.list(Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), false,
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.of(BannerSortOrder.title),
+            Direction.DESC, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.of(cursor.encode()), 0, 1, null, ImmutableList.of());
+
+        // VERIFY
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void facets() {
+        // WHEN
+        final Optional<String> place = Optional.of(a($String()));
+        final BannerFacets facets = new BannerFacets(1, Map.of(place.get(), 1L), Map.of(true, 1L), Map.of(false, 1L),
+            List.of(),
+            List.of(), List.of());
+
+        when(bannerSearchService.findFacets(eq(place), eq(Optional.empty()), eq(Optional.empty()),
+            eq(Optional.empty()), eq(Optional.empty()), eq(Optional.empty()), eq(false), eq(Optional.empty()),
+            eq(false), eq(Optional.empty()), eq(Optional.empty()), eq(Optional.empty()), eq(Optional.empty()),
+            eq(Optional.empty()), eq(Optional.empty()), eq(20))).thenReturn(facets);
+
+        // THEN
+        final ResponseEntity<BannerFacets> result = testController.facets(place, Optional.empty(), Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), false, Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), 20, null);
+
+        // VERIFY
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isEqualTo(facets);
+    }
+
+    @Test
+    void facets_withPartialBoundingBox() {
+        // THEN
+        final ResponseEntity<BannerFacets> result = testController.facets(Optional.empty(), Optional.of(a($Double())),
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), false,
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), 20, null);
+
+        // VERIFY
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void clusters() {
+        // WHEN
+        final BannerCluster cluster = new BannerCluster("u0y", 2, 50.1, 8.7, a($String()));
+
+        when(bannerSearchService.findClusters(any(), any(), any(), any(), any(), any(), eq(false), any(), eq(false),
+            any(), any(), any(), any(), any(), any(), eq(3))).thenReturn(List.of(cluster));
+
+        // THEN
+        final ResponseEntity<List<BannerCluster>> result = testController.clusters(Optional.empty(),
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            Optional.empty(), false, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+            Optional.empty(), 3, null);
+
+        // VERIFY
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).containsExactly(cluster);
+    }
+
+    @Test
+    void reindex_alreadyRunning() {
+        // WHEN
+        final ReindexStatus status = new ReindexStatus(ReindexStatus.State.running, null, null, Instant.now(), null,
+            10L, 5L, 4L, 1d, null);
+
+        when(bannerSearchService.startReindex(Optional.empty(), Optional.empty())).thenReturn(false);
+        when(bannerSearchService.getReindexStatus()).thenReturn(status);
+
+        // THEN
+        final ResponseEntity<ReindexStatus> result = testController.reindexBanners(Optional.empty(),
+            Optional.empty());
+
+        // VERIFY
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(result.getBody()).isEqualTo(status);
+    }
+
+    @Test
+    void suggestions() {
+        // WHEN
+        final Banner banner = a($Banner());
+        final Place place = fixPlaceInformation(a($Banner())).getStartPlaces().iterator().next();
+
+        when(bannerSearchService.suggestBanners("fra", 5)).thenReturn(List.of(banner));
+        when(bannerSearchService.suggestPlaces("fra", 5)).thenReturn(List.of(place));
+
+        // THEN
+        final SuggestionsDto result = testController.suggestions("fra", 5, ImmutableList.of());
+
+        // VERIFY
+        assertThat(result.banners).hasSize(1);
+        assertThat(result.banners.get(0).id).isEqualTo(banner.getCanonicalSlug());
+        assertThat(result.banners.get(0).title).isEqualTo(banner.getTitle());
+        assertThat(result.banners.get(0).numberOfMissions).isNull();
+        assertThat(result.places).hasSize(1);
+        assertThat(result.places.get(0).id).isEqualTo(place.getSlug());
+        assertThat(result.places.get(0).longName).isEqualTo(place.getInformation().get(0).getLongName());
+    }
+
     @Test
     void get() {
         // WHEN
         final String slug = a($String());
         final Banner banner = fixPlaceInformation(a($Banner()));
 
-        when(bannerService.findBySlugWithDetails(slug)).thenReturn(Optional.of(banner));
+        when(bannerService.findBySlug(slug, true, false)).thenReturn(Optional.of(banner));
 
         // THEN
         final var response = testController.get(slug,
@@ -124,12 +293,33 @@ class BannerControllerTest {
         assertThat(bannerDto.missions.get(0).id).isEqualTo(banner.getMissions().get(0).getId());
     }
 
+    @Test
+    void get_fetchPlan() {
+        // WHEN
+        final String slug = a($String());
+        final Banner banner = fixPlaceInformation(a($Banner()));
+
+        when(bannerService.findBySlug(eq(slug), anyBoolean(), anyBoolean())).thenReturn(Optional.of(banner));
+
+        // THEN
+        testController.get(slug, Optional.of(ImmutableSet.of(BannerDtoAttribute.title, BannerDtoAttribute.picture)),
+            null, ImmutableList.of());
+        testController.get(slug, Optional.of(ImmutableSet.of(BannerDtoAttribute.title,
+            BannerDtoAttribute.formattedAddress)), null, ImmutableList.of());
+        testController.get(slug, Optional.empty(), null, ImmutableList.of());
+
+        // VERIFY
+        verify(bannerService).findBySlug(slug, false, false);
+        verify(bannerService).findBySlug(slug, false, true);
+        verify(bannerService).findBySlug(slug, true, true);
+    }
+
     @Test
     void get_notFound() {
         // WHEN
         final String slug = a($String());
 
-        when(bannerService.findBySlugWithDetails(slug)).thenReturn(Optional.empty());
+        when(bannerService.findBySlug(slug, false, false)).thenReturn(Optional.empty());
 
         // THEN
         final var response = testController.get(slug, Optional.of(ImmutableSet.of()), null, ImmutableList.of());
@@ -145,7 +335,7 @@ class BannerControllerTest {
         final Banner savedBanner = fixPlaceInformation(a($Banner()));
 
         when(bannerService.create(banner)).thenReturn(savedBanner.getCanonicalSlug());
-        when(bannerService.findBySlugWithDetails(savedBanner.getCanonicalSlug())).thenReturn(Optional.of(savedBanner));
+        when(bannerService.findBySlug(savedBanner.getCanonicalSlug(), true, true)).thenReturn(Optional.of(savedBanner));
 
         // THEN
         final var response = testController.post(banner, null, ImmutableList.of());
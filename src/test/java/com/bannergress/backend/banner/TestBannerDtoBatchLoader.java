@@ -0,0 +1,74 @@
+package com.bannergress.backend.banner;
+
+import com.bannergress.backend.banner.settings.BannerSettings;
+import com.bannergress.backend.banner.settings.BannerSettingsService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.bannergress.backend.testutils.builder.BuilderMethods.a;
+import static com.bannergress.backend.testutils.builder.EntityBuilder.$Banner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TestBannerDtoBatchLoader {
+    private final BannerService bannerService = mock(BannerService.class);
+
+    private final BannerSettingsService bannerSettingsService = mock(BannerSettingsService.class);
+
+    @Test
+    void testSingleQueryForRegisteredBanners() {
+        Banner first = a($Banner());
+        Banner second = a($Banner());
+        first.setCanonicalSlug("first");
+        second.setCanonicalSlug("second");
+        BannerSettings settings = new BannerSettings();
+        settings.setBanner(first);
+        settings.setListType(BannerListType.todo);
+        when(bannerSettingsService.getBannerSettings("user", Set.of("first", "second")))
+            .thenReturn(List.of(settings));
+
+        BannerDtoBatchLoader loader = new BannerDtoBatchLoader(bannerService, bannerSettingsService,
+            Optional.of("user"), Optional.of("agent")).register(List.of(first, second));
+
+        assertThat(loader.getListType("first")).contains(BannerListType.todo);
+        assertThat(loader.getListType("second")).isEmpty();
+        verify(bannerSettingsService, times(1)).getBannerSettings(anyString(), anyCollection());
+    }
+
+    @Test
+    void testOwner() {
+        Banner first = a($Banner());
+        Banner second = a($Banner());
+        first.setCanonicalSlug("first");
+        second.setCanonicalSlug("second");
+        when(bannerService.getAuthoredBanners(Set.of("first", "second"), "agent")).thenReturn(Set.of("second"));
+
+        BannerDtoBatchLoader loader = new BannerDtoBatchLoader(bannerService, bannerSettingsService,
+            Optional.of("user"), Optional.of("agent")).register(List.of(first, second));
+
+        assertThat(loader.isOwner("first")).isFalse();
+        assertThat(loader.isOwner("second")).isTrue();
+        verify(bannerService, times(1)).getAuthoredBanners(anyCollection(), anyString());
+    }
+
+    @Test
+    void testAnonymous() {
+        BannerDtoBatchLoader loader = new BannerDtoBatchLoader(bannerService, bannerSettingsService,
+            Optional.empty(), Optional.empty()).register(List.of(a($Banner())));
+
+        assertThat(loader.getListType("slug")).isEmpty();
+        assertThat(loader.isOwner("slug")).isFalse();
+        verify(bannerSettingsService, never()).getBannerSettings(any(), any());
+        verify(bannerService, never()).getAuthoredBanners(any(), any());
+    }
+}
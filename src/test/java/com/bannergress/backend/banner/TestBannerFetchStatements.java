@@ -0,0 +1,197 @@
+package com.bannergress.backend.banner;
+
+import com.bannergress.backend.BannergressBackendApplication;
+import com.bannergress.backend.agent.Faction;
+import com.bannergress.backend.agent.NamedAgent;
+import com.bannergress.backend.mission.Mission;
+import com.bannergress.backend.mission.MissionStatus;
+import com.bannergress.backend.mission.step.MissionStep;
+import com.bannergress.backend.mission.step.Objective;
+import com.bannergress.backend.place.Place;
+import com.bannergress.backend.place.PlaceInformation;
+import com.bannergress.backend.place.PlaceType;
+import com.bannergress.backend.poi.POI;
+import com.bannergress.backend.poi.POIType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements of {@link BannerController#get} for different attribute combinations against a database
+ * migrated by Flyway. The count must not depend on the number of missions.
+ * <p>
+ * Needs an otherwise unused PostgreSQL database with PostGIS, see <code>application-integration.yaml</code>.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_DATASOURCE_URL", matches = ".+")
+class TestBannerFetchStatements {
+    private static final Set<BannerDtoAttribute> SCALAR_ATTRIBUTES = Set.of(BannerDtoAttribute.title,
+        BannerDtoAttribute.numberOfMissions);
+
+    private static final Set<BannerDtoAttribute> PLACE_ATTRIBUTES = Set.of(BannerDtoAttribute.title,
+        BannerDtoAttribute.formattedAddress);
+
+    private static final Set<BannerDtoAttribute> MISSION_ATTRIBUTES = Set.of(BannerDtoAttribute.title,
+        BannerDtoAttribute.missions);
+
+    private static final Set<BannerDtoAttribute> ALL_ATTRIBUTES = Set.of(BannerDtoAttribute.values());
+
+    private static ConfigurableApplicationContext context;
+
+    private static String smallBanner;
+
+    private static String largeBanner;
+
+    @BeforeAll
+    static void startApplication() {
+        context = new SpringApplicationBuilder(BannergressBackendApplication.class) //
+            .profiles("integration") //
+            .properties("spring.jpa.properties.hibernate.generate_statistics=true") //
+            .run();
+        smallBanner = createBanner(2);
+        largeBanner = createBanner(6);
+    }
+
+    @AfterAll
+    static void stopApplication() {
+        context.close();
+    }
+
+    @Test
+    void testScalarAttributesNeedOneStatement() {
+        assertThat(countStatements(smallBanner, Optional.of(SCALAR_ATTRIBUTES))).isEqualTo(1);
+        assertThat(countStatements(largeBanner, Optional.of(SCALAR_ATTRIBUTES))).isEqualTo(1);
+    }
+
+    @Test
+    void testPlaceAttributes() {
+        assertSameCount(Optional.of(PLACE_ATTRIBUTES));
+    }
+
+    @Test
+    void testMissionAttributes() {
+        assertSameCount(Optional.of(MISSION_ATTRIBUTES));
+    }
+
+    @Test
+    void testDefaultAttributes() {
+        assertSameCount(Optional.empty());
+    }
+
+    @Test
+    void testAllAttributes() {
+        assertSameCount(Optional.of(ALL_ATTRIBUTES));
+    }
+
+    private static void assertSameCount(Optional<Set<BannerDtoAttribute>> attributes) {
+        long small = countStatements(smallBanner, attributes);
+        long large = countStatements(largeBanner, attributes);
+
+        assertThat(large).as("statements for six missions").isEqualTo(small);
+    }
+
+    /**
+     * Counts the statements of a request in a read-only transaction, which keeps the session open like a web request.
+     * Scheduled jobs of the application may prepare statements at the same time and the statistics are global, so the
+     * minimum of several attempts is used.
+     */
+    private static long countStatements(String slug, Optional<Set<BannerDtoAttribute>> attributes) {
+        BannerController controller = context.getBean(BannerController.class);
+        Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class)
+            .getStatistics();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+            context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+        long minimum = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < 3; attempt++) {
+            long count = transactionTemplate.execute(status -> {
+                statistics.clear();
+                assertThat(controller.get(slug, attributes, null, List.of()).getStatusCode().is2xxSuccessful())
+                    .isTrue();
+                return statistics.getPrepareStatementCount();
+            });
+            minimum = Math.min(minimum, count);
+        }
+        return minimum;
+    }
+
+    /** Creates a banner with missions of two steps each, whose start place has information. */
+    private static String createBanner(int numberOfMissions) {
+        String id = "test-" + UUID.randomUUID();
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            EntityManager entityManager = SharedEntityManagerCreator
+                .createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+            Place place = new Place();
+            place.setId(id);
+            place.setSlug(id);
+            place.setType(PlaceType.locality);
+            place.setBoundaryMinLatitude(0d);
+            place.setBoundaryMinLongitude(0d);
+            place.setBoundaryMaxLatitude(1d);
+            place.setBoundaryMaxLongitude(1d);
+            PlaceInformation information = new PlaceInformation();
+            information.setPlace(place);
+            information.setLanguageCode("en");
+            information.setLongName(id);
+            information.setShortName(id);
+            information.setFormattedAddress(id);
+            place.getInformation().add(information);
+            entityManager.persist(place);
+
+            NamedAgent author = new NamedAgent();
+            author.setName(id);
+            author.setFaction(Faction.enlightened);
+            entityManager.persist(author);
+
+            Banner banner = new Banner();
+            banner.setCanonicalSlug(id);
+            banner.getSlugs().add(id);
+            banner.setTitle(id);
+            banner.setWidth(6);
+            banner.setNumberOfMissions(numberOfMissions);
+            banner.setType(BannerType.sequential);
+            banner.setCreated(Instant.now());
+            banner.setOnline(true);
+            banner.getStartPlaces().add(place);
+            for (int position = 0; position < numberOfMissions; position++) {
+                Mission mission = new Mission();
+                mission.setId(id + "-" + position);
+                mission.setTitle(id);
+                mission.setStatus(MissionStatus.published);
+                mission.setAuthor(author);
+                for (int step = 0; step < 2; step++) {
+                    POI poi = new POI();
+                    poi.setId(mission.getId() + "-" + step);
+                    poi.setType(POIType.portal);
+                    entityManager.persist(poi);
+                    MissionStep missionStep = new MissionStep();
+                    missionStep.setMission(mission);
+                    missionStep.setPoi(poi);
+                    missionStep.setObjective(Objective.hack);
+                    mission.getSteps().add(missionStep);
+                }
+                entityManager.persist(mission);
+                banner.getMissions().put(position, mission);
+            }
+            entityManager.persist(banner);
+        });
+        return id;
+    }
+}
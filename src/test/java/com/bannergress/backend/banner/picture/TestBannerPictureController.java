@@ -0,0 +1,111 @@
+package com.bannergress.backend.banner.picture;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TestBannerPictureController {
+    private static final String HASH = "0123456789abcdef0123456789abcdef";
+
+    private final BannerPictureService bannerPictureService = mock(BannerPictureService.class);
+
+    private final BannerPictureController controller = new BannerPictureController();
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bnrs/pictures/" + HASH);
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    TestBannerPictureController() {
+        ReflectionTestUtils.setField(controller, "bannerPictureService", bannerPictureService);
+    }
+
+    @Test
+    void testContentWithStrongEtag() {
+        when(bannerPictureService.findContent(HASH, BannerPictureSize.half))
+            .thenReturn(Optional.of(new BannerPictureContent(new ByteArrayResource(new byte[] {1}), true)));
+
+        ResponseEntity<?> result = controller.getFile(HASH, BannerPictureSize.half,
+            new ServletWebRequest(request, response));
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getHeaders().getETag()).isEqualTo("\"" + HASH + "-half\"");
+    }
+
+    @Test
+    void testIncompleteContentNotImmutable() {
+        when(bannerPictureService.findContent(HASH, BannerPictureSize.full))
+            .thenReturn(Optional.of(new BannerPictureContent(new ByteArrayResource(new byte[] {1}), false)));
+
+        ResponseEntity<?> result = controller.getFile(HASH, BannerPictureSize.full,
+            new ServletWebRequest(request, response));
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getHeaders().getETag()).isNull();
+        assertThat(result.getHeaders().getCacheControl()).doesNotContain("immutable");
+    }
+
+    @Test
+    void testRenderOnFirstRead() {
+        when(bannerPictureService.findContent(HASH, BannerPictureSize.full)).thenReturn(Optional.empty())
+            .thenReturn(Optional.of(new BannerPictureContent(new ByteArrayResource(new byte[] {1}), true)));
+        when(bannerPictureService.renderOnRead(HASH)).thenReturn(RenderOnReadResult.rendered);
+
+        ResponseEntity<?> result = controller.getFile(HASH, BannerPictureSize.full,
+            new ServletWebRequest(request, response));
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getHeaders().getETag()).isEqualTo("\"" + HASH + "-full\"");
+        verify(bannerPictureService).renderOnRead(HASH);
+    }
+
+    @Test
+    void testUnknownHashNotFound() {
+        when(bannerPictureService.findContent(HASH, BannerPictureSize.full)).thenReturn(Optional.empty());
+        when(bannerPictureService.renderOnRead(HASH)).thenReturn(RenderOnReadResult.notFound);
+
+        assertThatThrownBy(() -> controller.getFile(HASH, BannerPictureSize.full,
+            new ServletWebRequest(request, response))).isInstanceOfSatisfying(ResponseStatusException.class,
+                ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+        verify(bannerPictureService).findContent(HASH, BannerPictureSize.full);
+    }
+
+    @Test
+    void testIfNoneMatchWithoutLookup() {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "-full\"");
+
+        ResponseEntity<?> result = controller.getFile(HASH, BannerPictureSize.full,
+            new ServletWebRequest(request, response));
+
+        assertThat(result).isNull();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        verifyNoInteractions(bannerPictureService);
+    }
+
+    @Test
+    void testIfModifiedSinceWithoutLookup() {
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 21 Oct 2015 07:28:00 GMT");
+
+        ResponseEntity<?> result = controller.getFile(HASH, BannerPictureSize.full,
+            new ServletWebRequest(request, response));
+
+        assertThat(result).isNull();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        verifyNoInteractions(bannerPictureService);
+    }
+}
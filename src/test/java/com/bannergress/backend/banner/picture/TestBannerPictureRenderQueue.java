@@ -0,0 +1,56 @@
+package com.bannergress.backend.banner.picture;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TestBannerPictureRenderQueue {
+    private static final String HASH = "0123456789abcdef0123456789abcdef";
+
+    private final BannerPictureRenderQueue queue = new BannerPictureRenderQueue(new SimpleMeterRegistry(), 1, 10);
+
+    @AfterEach
+    void tearDown() {
+        queue.destroy();
+    }
+
+    @Test
+    void testRenderNow() {
+        AtomicBoolean rendered = new AtomicBoolean();
+
+        assertThat(queue.renderNow(HASH, () -> rendered.set(true))).isTrue();
+        assertThat(rendered).isTrue();
+    }
+
+    @Test
+    void testRenderNowFailure() {
+        assertThat(queue.renderNow(HASH, () -> {
+            throw new IllegalStateException("failed");
+        })).isFalse();
+    }
+
+    @Test
+    void testRenderNowSkipsPending() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue.submit(HASH, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await();
+        AtomicBoolean rendered = new AtomicBoolean();
+
+        assertThat(queue.renderNow(HASH, () -> rendered.set(true))).isFalse();
+        assertThat(rendered).isFalse();
+        release.countDown();
+    }
+}
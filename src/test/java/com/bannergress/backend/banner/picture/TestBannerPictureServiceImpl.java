@@ -1,25 +1,41 @@
 package com.bannergress.backend.banner.picture;
 
 import com.bannergress.backend.banner.Banner;
+import com.bannergress.backend.banner.picture.BannerPictureServiceImpl.RenderedPictures;
 import com.bannergress.backend.mission.Mission;
 import com.bannergress.backend.mission.MissionStatus;
 import org.assertj.core.util.Sets;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import javax.imageio.ImageIO;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 class TestBannerPictureServiceImpl {
+    @TempDir
+    Path tileDirectory;
 
     @Test
     void testCreatePicture() throws IOException {
-        BannerPictureServiceImpl bannerPictureService = new BannerPictureServiceImpl(null, 0.92f);
+        BannerPictureServiceImpl bannerPictureService = createService();
         Banner banner = new Banner();
         banner.setWidth(6);
         SortedMap<Integer, Mission> missions = new TreeMap<>();
@@ -47,4 +63,158 @@ class TestBannerPictureServiceImpl {
         }
     }
 
+    @Test
+    void testCreatePictureVariants() throws IOException {
+        Banner banner = new Banner();
+        banner.setWidth(6);
+        banner.setMissions(new TreeMap<>());
+        banner.setPlaceholders(Sets.newTreeSet(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11));
+
+        RenderedPictures rendered = createService().createPictures(banner, Optional.empty());
+        Map<BannerPictureSize, byte[]> pictures = rendered.contents();
+
+        assertThat(rendered.complete()).isTrue();
+        assertThat(pictures).containsOnlyKeys(BannerPictureSize.values());
+        for (BannerPictureSize size : BannerPictureSize.values()) {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(pictures.get(size)));
+            assertThat(image.getWidth()).isEqualTo(604 / size.getDivisor());
+            assertThat(image.getHeight()).isEqualTo(204 / size.getDivisor());
+        }
+    }
+
+    @Test
+    void testFailedMissionPictureMakesPictureIncomplete() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MissionPictureFetcher fetcher = new MissionPictureFetcher(null,
+            new FetchConfiguration(Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofSeconds(20),
+                Duration.ofSeconds(60), 8, 0), meterRegistry) {
+            @Override
+            BufferedImage fetch(String url) throws IOException {
+                throw new IOException("unavailable");
+            }
+        };
+        BannerPictureServiceImpl service = new BannerPictureServiceImpl(
+            new MissionTileCache(fetcher, tileDirectory.toString(), 10_000_000, meterRegistry), 0.92f, 100_000_000);
+
+        RenderedPictures rendered = service.createPictures(createBannerWithMissionPictures(), Optional.empty());
+
+        assertThat(rendered.complete()).isFalse();
+        assertThat(rendered.contents()).containsOnlyKeys(BannerPictureSize.values());
+    }
+
+    @Test
+    void testSlowMissionPictureMakesPictureIncomplete() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MissionPictureFetcher fetcher = new MissionPictureFetcher(null,
+            new FetchConfiguration(Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofSeconds(20),
+                Duration.ofMillis(100), 8, 0), meterRegistry) {
+            @Override
+            BufferedImage fetch(String url) throws IOException {
+                try {
+                    Thread.sleep(Duration.ofMinutes(1));
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("unavailable");
+            }
+        };
+        BannerPictureServiceImpl service = new BannerPictureServiceImpl(
+            new MissionTileCache(fetcher, tileDirectory.toString(), 10_000_000, meterRegistry), 0.92f, 100_000_000);
+
+        RenderedPictures rendered = service.createPictures(createBannerWithMissionPictures(), Optional.empty());
+
+        assertThat(rendered.complete()).isFalse();
+        fetcher.destroy();
+    }
+
+    @Test
+    void testIncrementalRenderMatchesFullRender() throws IOException {
+        Banner before = createBanner(Map.of(2, "original"), Set.of());
+        Banner after = createBanner(Map.of(2, "changed"), Set.of(4));
+        after.getMissions().remove(7);
+        after.setPlaceholders(Sets.newTreeSet(7, 10, 11));
+        after.setNumberOfMissions(after.getMissions().size());
+        BannerPictureServiceImpl service = createService(createGeneratingFetcher());
+        service.createPictures(before, Optional.empty());
+
+        RenderedPictures incremental = service.createPictures(after, Optional.of(service.hash(before)));
+        RenderedPictures full = createService(createGeneratingFetcher()).createPictures(after, Optional.empty());
+
+        for (BannerPictureSize size : BannerPictureSize.values()) {
+            assertThat(incremental.contents().get(size)).as(size.toString()).isEqualTo(full.contents().get(size));
+        }
+    }
+
+    /**
+     * Creates a banner with two rows, with mission pictures at the first ten positions and placeholders at the others.
+     *
+     * @param pictures          Names of mission pictures by position, other positions use the position as name.
+     * @param disabledPositions Positions of disabled missions.
+     */
+    private static Banner createBanner(Map<Integer, String> pictures, Set<Integer> disabledPositions)
+        throws IOException {
+        Banner banner = new Banner();
+        banner.setWidth(6);
+        SortedMap<Integer, Mission> missions = new TreeMap<>();
+        for (int i = 0; i < 10; i++) {
+            Mission mission = new Mission();
+            mission.setStatus(disabledPositions.contains(i) ? MissionStatus.disabled : MissionStatus.published);
+            mission.setPicture(new URL("https://pictures.invalid/" + pictures.getOrDefault(i, String.valueOf(i))));
+            missions.put(i, mission);
+        }
+        banner.setMissions(missions);
+        banner.setPlaceholders(Sets.newTreeSet(10, 11));
+        banner.setNumberOfMissions(missions.size());
+        banner.setNumberOfDisabledMissions(disabledPositions.size());
+        return banner;
+    }
+
+    /** Creates a fetcher which generates a round picture with a semi-transparent edge for every URL. */
+    private static MissionPictureFetcher createGeneratingFetcher() {
+        return new MissionPictureFetcher(null, new FetchConfiguration(Duration.ofSeconds(5), Duration.ofSeconds(10),
+            Duration.ofSeconds(20), Duration.ofSeconds(60), 8, 0), new SimpleMeterRegistry()) {
+            @Override
+            BufferedImage fetch(String url) {
+                int size = 256;
+                int color = url.hashCode() & 0xffffff;
+                BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+                for (int y = 0; y < size; y++) {
+                    for (int x = 0; x < size; x++) {
+                        double distance = Math.hypot(x - size / 2d, y - size / 2d);
+                        int alpha = (int) Math.round(Math.clamp((120 - distance) / 8, 0d, 1d) * 255);
+                        image.setRGB(x, y, (alpha << 24) | ((color + x * 515 + y * 263) & 0xffffff));
+                    }
+                }
+                return image;
+            }
+        };
+    }
+
+    private static Banner createBannerWithMissionPictures() throws IOException {
+        Banner banner = new Banner();
+        banner.setWidth(6);
+        SortedMap<Integer, Mission> missions = new TreeMap<>();
+        for (int i = 0; i < 6; i++) {
+            Mission mission = new Mission();
+            mission.setStatus(MissionStatus.published);
+            mission.setPicture(new URL("https://pictures.invalid/" + i));
+            missions.put(i, mission);
+        }
+        banner.setMissions(missions);
+        banner.setNumberOfMissions(6);
+        return banner;
+    }
+
+    private BannerPictureServiceImpl createService() {
+        return createService(new MissionPictureFetcher(null,
+            new FetchConfiguration(Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofSeconds(20),
+                Duration.ofSeconds(60), 8, 2), new SimpleMeterRegistry()));
+    }
+
+    private BannerPictureServiceImpl createService(MissionPictureFetcher fetcher) {
+        MissionTileCache tileCache = new MissionTileCache(fetcher, tileDirectory.toString(), 10_000_000,
+            new SimpleMeterRegistry());
+        return new BannerPictureServiceImpl(tileCache, 0.92f, 100_000_000);
+    }
+
 }
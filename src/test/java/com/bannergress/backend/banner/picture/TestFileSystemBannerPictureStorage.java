@@ -0,0 +1,44 @@
+package com.bannergress.backend.banner.picture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TestFileSystemBannerPictureStorage {
+    private static final String HASH = "0123456789abcdef0123456789abcdef";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWriteReadDelete() throws IOException {
+        FileSystemBannerPictureStorage storage = new FileSystemBannerPictureStorage(directory.toString(), true);
+        BannerPicture picture = new BannerPicture();
+        picture.setHash(HASH);
+
+        storage.write(picture, Map.of(BannerPictureSize.full, new byte[] {1, 2, 3}, BannerPictureSize.half,
+            new byte[] {4}));
+
+        Resource full = storage.read(HASH, BannerPictureSize.full).get();
+        assertThat(full.getContentAsByteArray()).containsExactly(1, 2, 3);
+        assertThat(storage.read(HASH, BannerPictureSize.half).get().getContentAsByteArray()).containsExactly(4);
+        assertThat(storage.read(HASH, BannerPictureSize.quarter)).isEmpty();
+
+        storage.delete(HASH);
+
+        assertThat(storage.read(HASH, BannerPictureSize.full)).isEmpty();
+    }
+
+    @Test
+    void testInvalidHash() {
+        FileSystemBannerPictureStorage storage = new FileSystemBannerPictureStorage(directory.toString(), true);
+
+        assertThat(storage.read("../" + HASH, BannerPictureSize.full)).isEmpty();
+    }
+}
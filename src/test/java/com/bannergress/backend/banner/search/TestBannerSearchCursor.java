@@ -0,0 +1,60 @@
+package com.bannergress.backend.banner.search;
+
+import com.bannergress.backend.banner.Banner;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort.Direction;
+
+import java.util.Optional;
+
+import static com.bannergress.backend.testutils.builder.BuilderMethods.a;
+import static com.bannergress.backend.testutils.builder.EntityBuilder.$Banner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class TestBannerSearchCursor {
+    @Test
+    void testRoundTrip() {
+        Banner banner = a($Banner());
+        banner.setTitle("Title | with separators |");
+        for (BannerSortOrder orderBy : new BannerSortOrder[] {BannerSortOrder.created, BannerSortOrder.title,
+            BannerSortOrder.numberOfMissions, BannerSortOrder.lengthMeters}) {
+            BannerSearchCursor cursor = BannerSearchCursor.after(Optional.of(orderBy), Direction.DESC, banner).get();
+            BannerSearchCursor decoded = BannerSearchCursor.decode(cursor.encode());
+            assertThat(decoded).isEqualTo(cursor);
+            assertThat(decoded.matches(Optional.of(orderBy), Direction.DESC)).isTrue();
+            assertThat(decoded.matches(Optional.of(orderBy), Direction.ASC)).isFalse();
+        }
+    }
+
+    @Test
+    void testMissingValue() {
+        Banner banner = a($Banner());
+        banner.setLengthMeters(null);
+        BannerSearchCursor cursor = BannerSearchCursor
+            .after(Optional.of(BannerSortOrder.lengthMeters), Direction.ASC, banner).get();
+        BannerSearchCursor decoded = BannerSearchCursor.decode(cursor.encode());
+        assertThat(decoded.value()).isNull();
+        assertThat(decoded.uuid()).isEqualTo(banner.getUuid());
+    }
+
+    @Test
+    void testDefaultOrderIgnoresDirection() {
+        Banner banner = a($Banner());
+        BannerSearchCursor cursor = BannerSearchCursor.after(Optional.empty(), Direction.DESC, banner).get();
+        assertThat(BannerSearchCursor.decode(cursor.encode()).matches(Optional.empty(), Direction.ASC)).isTrue();
+    }
+
+    @Test
+    void testUnsupportedSortOrder() {
+        Banner banner = a($Banner());
+        assertThat(BannerSearchCursor.after(Optional.of(BannerSortOrder.relevance), Direction.ASC, banner)).isEmpty();
+        assertThat(BannerSearchCursor.after(Optional.of(BannerSortOrder.proximityStartPoint), Direction.ASC, banner))
+            .isEmpty();
+    }
+
+    @Test
+    void testMalformed() {
+        assertThatIllegalArgumentException().isThrownBy(() -> BannerSearchCursor.decode("not a cursor"));
+        assertThatIllegalArgumentException().isThrownBy(() -> BannerSearchCursor.decode("Zm9v"));
+    }
+}
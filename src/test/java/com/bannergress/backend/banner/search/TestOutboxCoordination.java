@@ -0,0 +1,117 @@
+package com.bannergress.backend.banner.search;
+
+import com.bannergress.backend.BannergressBackendApplication;
+import com.bannergress.backend.place.Place;
+import com.bannergress.backend.place.PlaceType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.search.mapper.orm.Search;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs nodes with the outbox profile against a database migrated by Flyway, so that the outbox and agent tables of
+ * the migrations are checked against the mappings of Hibernate Search.
+ * <p>
+ * Needs an otherwise unused PostgreSQL database with PostGIS, see <code>application-integration.yaml</code>.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_DATASOURCE_URL", matches = ".+")
+class TestOutboxCoordination {
+    private static final Duration TIMEOUT = Duration.ofMinutes(1);
+
+    @TempDir
+    Path indexDirectory;
+
+    @Test
+    void testSingleNodeProcessesEvents() {
+        try (ConfigurableApplicationContext node = startNode("single", true)) {
+            String id = createPlace(node);
+
+            awaitProcessed(node);
+            await(() -> countIndexed(node, id) > 0);
+            assertThat(countIndexed(node, id)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void testProcessorNodeIndexesEventsOfAllNodes() {
+        try (ConfigurableApplicationContext searchNode = startNode("search", true);
+            ConfigurableApplicationContext writeNode = startNode("write", false)) {
+            String writtenBySearchNode = createPlace(searchNode);
+            String writtenByWriteNode = createPlace(writeNode);
+
+            awaitProcessed(searchNode);
+            // The node serving searches sees every entity, regardless of the node which wrote it
+            await(() -> countIndexed(searchNode, writtenBySearchNode) > 0
+                && countIndexed(searchNode, writtenByWriteNode) > 0);
+            assertThat(countIndexed(searchNode, writtenBySearchNode)).isEqualTo(1);
+            assertThat(countIndexed(searchNode, writtenByWriteNode)).isEqualTo(1);
+        }
+    }
+
+    private ConfigurableApplicationContext startNode(String name, boolean eventProcessor) {
+        return new SpringApplicationBuilder(BannergressBackendApplication.class) //
+            .profiles("integration", "outbox") //
+            .properties("spring.jpa.properties.hibernate.search.backend.directory.root="
+                + indexDirectory.resolve(name), "search.event-processor.enabled=" + eventProcessor) //
+            .run();
+    }
+
+    private static String createPlace(ConfigurableApplicationContext node) {
+        String id = "test-" + UUID.randomUUID();
+        new TransactionTemplate(node.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            Place place = new Place();
+            place.setId(id);
+            place.setSlug(id);
+            place.setType(PlaceType.locality);
+            place.setBoundaryMinLatitude(0d);
+            place.setBoundaryMinLongitude(0d);
+            place.setBoundaryMaxLatitude(1d);
+            place.setBoundaryMaxLongitude(1d);
+            SharedEntityManagerCreator.createSharedEntityManager(node.getBean(EntityManagerFactory.class))
+                .persist(place);
+        });
+        return id;
+    }
+
+    private static void awaitProcessed(ConfigurableApplicationContext node) {
+        JdbcTemplate jdbcTemplate = node.getBean(JdbcTemplate.class);
+        await(() -> jdbcTemplate.queryForObject("SELECT count(*) FROM hsearch_outbox_event", Long.class) == 0);
+    }
+
+    private static long countIndexed(ConfigurableApplicationContext node, String id) {
+        try (EntityManager entityManager = node.getBean(EntityManagerFactory.class).createEntityManager()) {
+            return Search.session(entityManager).search(Place.class) //
+                .where(f -> f.id().matching(id)) //
+                .fetchTotalHitCount();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        Instant deadline = Instant.now().plus(TIMEOUT);
+        while (!condition.getAsBoolean()) {
+            assertThat(Instant.now()).as("condition met before timeout").isBefore(deadline);
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
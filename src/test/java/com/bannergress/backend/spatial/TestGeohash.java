@@ -0,0 +1,37 @@
+package com.bannergress.backend.spatial;
+
+import org.hibernate.search.engine.spatial.GeoPoint;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.within;
+
+class TestGeohash {
+    @Test
+    void testEncode() {
+        assertThat(Geohash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+        assertThat(Geohash.encode(42.6, -5.6, 5)).isEqualTo("ezs42");
+        assertThat(Geohash.encode(-90, -180, 3)).isEqualTo("000");
+        assertThat(Geohash.encode(90, 180, 3)).isEqualTo("zzz");
+    }
+
+    @Test
+    void testPrefix() {
+        assertThat(Geohash.encode(57.64911, 10.40744, 11)).startsWith(Geohash.encode(57.64911, 10.40744, 4));
+    }
+
+    @Test
+    void testCenter() {
+        GeoPoint center = Geohash.center("ezs42");
+        assertThat(center.latitude()).isCloseTo(42.605, within(0.001));
+        assertThat(center.longitude()).isCloseTo(-5.603, within(0.001));
+        assertThat(Geohash.encode(center.latitude(), center.longitude(), 5)).isEqualTo("ezs42");
+    }
+
+    @Test
+    void testInvalidPrecision() {
+        assertThatIllegalArgumentException().isThrownBy(() -> Geohash.encode(0, 0, 0));
+        assertThatIllegalArgumentException().isThrownBy(() -> Geohash.encode(0, 0, Geohash.MAX_PRECISION + 1));
+    }
+}